@@ -0,0 +1,50 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.config.GatewayProperties;
+import ru.practicum.shareit.exception.ValidateException;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+
+@Slf4j
+@Validated
+@RestController
+@RequiredArgsConstructor
+public class BatchController {
+    private final BatchDispatcher batchDispatcher;
+    private final GatewayProperties properties;
+
+    /**
+     * Runs the sub-requests concurrently and answers once all of them are done, keeping the
+     * request order. Sub-requests are subscribed on the bounded elastic scheduler because the
+     * blocking transport would otherwise run them one by one on the calling thread.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> batch(@RequestHeader(name = "X-Sharer-User-Id", required = false)
+                                              @Positive Long userId,
+                                              @Valid @RequestBody BatchRequestDto batchRequestDto) {
+        GatewayProperties.Batch limits = properties.getBatch();
+        if (batchRequestDto.getRequests().size() > limits.getMaxRequests()) {
+            throw new ValidateException("Batch may contain at most " + limits.getMaxRequests() + " requests");
+        }
+        log.info("Batch of {} requests, userId={}", batchRequestDto.getRequests().size(), userId);
+        return Flux.fromIterable(batchRequestDto.getRequests())
+                .flatMapSequential(subRequest -> batchDispatcher.dispatch(subRequest, userId)
+                        .subscribeOn(Schedulers.boundedElastic()), limits.getMaxConcurrency())
+                .collectList()
+                .map(results -> new ResponseEntity<Object>(results, HttpStatus.OK));
+    }
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.batch;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.exception.UnknownStateException;
+import ru.practicum.shareit.exception.ValidateException;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.request.ItemRequestController;
+import ru.practicum.shareit.user.UserController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves batch sub-requests to the gateway's own GET handlers. The controllers are called
+ * through their Spring proxies, so the same parameter validation applies as for a direct call.
+ */
+@Component
+public class BatchDispatcher {
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final List<Route> routes;
+
+    public BatchDispatcher(UserController users, ItemController items,
+                           BookingController bookings, ItemRequestController requests) {
+        this.routes = List.of(
+                new Route("/users", call -> users.getAll()),
+                new Route("/users/{id}", call -> users.getById(call.longVariable("id"))),
+                new Route("/items", call -> items.getAllBy(call.userId(),
+                        call.intParam("from", 0), call.intParam("size", 100), call.optionalParam("cursor"))),
+                new Route("/items/search", call -> items.getByText(call.param("text", null),
+                        call.intParam("from", 0), call.intParam("size", 100))),
+                new Route("/items/suggest", call -> items.suggest(call.param("prefix", null),
+                        call.intParam("limit", 10))),
+                new Route("/items/{itemId}", call -> items.getById(call.userId(), call.longVariable("itemId"))),
+                new Route("/bookings", call -> bookings.getBookings(call.userId(), call.param("state", "all"),
+                        call.intParam("from", 0), call.intParam("size", 10), call.optionalParam("cursor"))),
+                new Route("/bookings/owner", call -> bookings.getAllByOwner(call.userId(), call.param("state", "all"),
+                        call.intParam("from", 0), call.intParam("size", 10), call.optionalParam("cursor"))),
+                new Route("/bookings/{bookingId}", call -> bookings.getBooking(call.userId(),
+                        call.longVariable("bookingId"))),
+                new Route("/requests", call -> requests.getAll(call.userId())),
+                new Route("/requests/all", call -> requests.getAllAnotherUsers(call.userId(),
+                        call.intParam("from", 0), call.intParam("size", 10))),
+                new Route("/requests/{requestId}", call -> requests.getById(call.userId(),
+                        call.longVariable("requestId"))));
+    }
+
+    public Mono<BatchResponseDto> dispatch(BatchRequestDto.SubRequest subRequest, @Nullable Long userId) {
+        return Mono.defer(() -> resolve(subRequest, userId))
+                .map(response -> BatchResponseDto.of(subRequest.getId(), response))
+                .onErrorResume(e -> Mono.just(
+                        BatchResponseDto.error(subRequest.getId(), statusOf(e).value(), messageOf(e))));
+    }
+
+    private Mono<ResponseEntity<Object>> resolve(BatchRequestDto.SubRequest subRequest, @Nullable Long userId) {
+        if (!HttpMethod.GET.matches(subRequest.getMethod())) {
+            throw new ResponseStatusException(HttpStatus.METHOD_NOT_ALLOWED,
+                    "Only GET sub-requests are supported");
+        }
+        UriComponents uri = UriComponentsBuilder.fromUriString(subRequest.getPath()).build();
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        for (Route route : routes) {
+            if (MATCHER.match(route.pattern(), path)) {
+                Map<String, String> variables = MATCHER.extractUriTemplateVariables(route.pattern(), path);
+                return route.handler().apply(new Call(variables, uri.getQueryParams(), userId));
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No route for " + path);
+    }
+
+    private static String messageOf(Throwable e) {
+        return e instanceof ResponseStatusException statusException ? statusException.getReason() : e.getMessage();
+    }
+
+    private static HttpStatus statusOf(Throwable e) {
+        if (e instanceof ResponseStatusException statusException) {
+            return HttpStatus.valueOf(statusException.getStatusCode().value());
+        }
+        if (e instanceof ValidateException || e instanceof ConstraintViolationException
+                || e instanceof UnknownStateException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (e instanceof CallNotPermittedException || e instanceof BulkheadFullException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        return HttpStatus.BAD_GATEWAY;
+    }
+
+    private record Route(String pattern, Function<Call, Mono<ResponseEntity<Object>>> handler) {
+    }
+
+    private record Call(Map<String, String> variables, MultiValueMap<String, String> query, @Nullable Long sharerId) {
+
+        long userId() {
+            if (sharerId == null) {
+                throw new ValidateException("X-Sharer-User-Id header is required");
+            }
+            return sharerId;
+        }
+
+        long longVariable(String name) {
+            return parseLong(name, variables.get(name));
+        }
+
+        String param(String name, @Nullable String defaultValue) {
+            String value = query.getFirst(name);
+            if (value == null) {
+                if (defaultValue == null) {
+                    throw new ValidateException("Required parameter '" + name + "' is missing");
+                }
+                return defaultValue;
+            }
+            return UriUtils.decode(value, StandardCharsets.UTF_8);
+        }
+
+        @Nullable
+        String optionalParam(String name) {
+            String value = query.getFirst(name);
+            return value == null ? null : UriUtils.decode(value, StandardCharsets.UTF_8);
+        }
+
+        int intParam(String name, int defaultValue) {
+            String value = query.getFirst(name);
+            if (value == null) {
+                return defaultValue;
+            }
+            long parsed = parseLong(name, value);
+            if (parsed < Integer.MIN_VALUE || parsed > Integer.MAX_VALUE) {
+                throw new ValidateException("Parameter '" + name + "' is out of range");
+            }
+            return (int) parsed;
+        }
+
+        private static long parseLong(String name, String value) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new ValidateException("Parameter '" + name + "' must be a number");
+            }
+        }
+    }
+}
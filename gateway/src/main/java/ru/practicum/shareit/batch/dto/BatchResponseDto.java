@@ -0,0 +1,36 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class BatchResponseDto {
+    private final String id;
+    private final int status;
+    private final Object body;
+
+    public static BatchResponseDto of(String id, ResponseEntity<Object> response) {
+        return new BatchResponseDto(id, response.getStatusCode().value(), embed(response.getBody()));
+    }
+
+    public static BatchResponseDto error(String id, int status, String message) {
+        return new BatchResponseDto(id, status, Map.of("error", String.valueOf(message)));
+    }
+
+    /**
+     * Raw server bodies (passthrough mode and upstream errors) are already JSON, so they are
+     * written into the batch response as-is instead of being re-encoded as a base64 string.
+     */
+    private static Object embed(Object body) {
+        if (body instanceof byte[] bytes) {
+            return bytes.length == 0 ? null : new RawValue(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return body;
+    }
+}
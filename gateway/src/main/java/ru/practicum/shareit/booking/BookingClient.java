@@ -2,58 +2,65 @@ package ru.practicum.shareit.booking;
 
 import java.util.Map;
 
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    public BookingClient(String serverUrl, RestTemplate restTemplate) {
-        super(
-                new RestTemplateBuilder()
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public BookingClient(String serverUrl, ServerTransportFactory transports) {
+        super(serverUrl, API_PREFIX, transports);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from, Integer size,
+                                                    @Nullable String cursor) {
+        return get(page("", cursor), userId, pageParameters(state, from, size, cursor));
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<StreamingResponseBody>> exportByOwner(long userId) {
+        return stream("/owner/export", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> patchBooking(long userId, long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> patchBooking(long userId, long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(long ownerId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+    public Mono<ResponseEntity<Object>> getBookingsByOwner(long ownerId, BookingState state, Integer from, Integer size,
+                                                           @Nullable String cursor) {
+        return get(page("/owner", cursor), ownerId, pageParameters(state, from, size, cursor));
+    }
+
+    /**
+     * Keyset page when a cursor is given, otherwise an offset page.
+     */
+    private static String page(String path, @Nullable String cursor) {
+        return cursor != null
+                ? path + "?state={state}&cursor={cursor}&size={size}"
+                : path + "?state={state}&from={from}&size={size}";
+    }
+
+    private static Map<String, Object> pageParameters(BookingState state, Integer from, Integer size,
+                                                      @Nullable String cursor) {
+        return cursor != null
+                ? Map.of("state", state.name(), "cursor", cursor, "size", size)
+                : Map.of("state", state.name(), "from", from, "size", size);
     }
 }
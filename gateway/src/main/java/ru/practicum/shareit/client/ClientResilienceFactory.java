@@ -0,0 +1,76 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.config.GatewayProperties;
+
+/**
+ * Creates one bulkhead and one circuit breaker per backend client, named after the client's API
+ * prefix, so a slow upstream route can only exhaust its own share of gateway threads.
+ *
+ * <p>Upstream 5xx responses count as failures alongside transport errors and timeouts.
+ */
+@Slf4j
+public class ClientResilienceFactory {
+    private final GatewayProperties.Resilience properties;
+    private final MeterRegistry meterRegistry;
+    private final BulkheadRegistry bulkheads;
+    private final CircuitBreakerRegistry circuitBreakers;
+
+    public ClientResilienceFactory(GatewayProperties.Resilience properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getMaxConcurrentCalls())
+                .maxWaitDuration(properties.getMaxWait())
+                .build());
+        this.circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(properties.getSlowCallDuration())
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .minimumNumberOfCalls(properties.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(properties.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+                .recordResult(ClientResilienceFactory::isServerError)
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public ClientResilience create(String name) {
+        Bulkhead bulkhead = bulkheads.bulkhead(name, BulkheadConfig.from(bulkheads.getDefaultConfig())
+                .maxConcurrentCalls(properties.getClientMaxConcurrentCalls()
+                        .getOrDefault(name, properties.getMaxConcurrentCalls()))
+                .build());
+        Counter rejected = Counter.builder("gateway.bulkhead.rejected")
+                .tag("name", name)
+                .register(meterRegistry);
+        bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(name);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Circuit breaker {}: {}", name, event.getStateTransition()));
+        return new ClientResilience(bulkhead, circuitBreaker);
+    }
+
+    private static boolean isServerError(Object result) {
+        return result instanceof ResponseEntity<?> response && response.getStatusCode().is5xxServerError();
+    }
+}
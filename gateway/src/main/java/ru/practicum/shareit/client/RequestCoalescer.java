@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs a single upstream call for identical in-flight GETs and shares its response with every waiter.
+ * Only routes from the allow-list are coalesced.
+ */
+public class RequestCoalescer {
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> routes;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(List<String> routes, MeterRegistry meterRegistry) {
+        this.routes = List.copyOf(routes);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Optional<String> matchRoute(String route) {
+        return routes.stream()
+                .filter(pattern -> pathMatcher.match(pattern, route))
+                .findFirst();
+    }
+
+    public Mono<ResponseEntity<Object>> execute(String route, String key, Supplier<Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            boolean[] leader = {false};
+            Mono<ResponseEntity<Object>> shared = inFlight.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                return call.get()
+                        .doFinally(signal -> inFlight.remove(k))
+                        .cache();
+            });
+            counter("gateway.coalescing.requests", route).increment();
+            if (!leader[0]) {
+                counter("gateway.coalescing.coalesced", route).increment();
+            }
+            return shared;
+        });
+    }
+
+    private Counter counter(String name, String route) {
+        return Counter.builder(name)
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
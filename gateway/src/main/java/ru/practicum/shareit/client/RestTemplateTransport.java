@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import java.io.InputStream;
+import java.util.Map;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+
+/**
+ * Blocking transport: the request runs on the subscribing (Tomcat) thread.
+ */
+public class RestTemplateTransport implements ServerTransport {
+    private final RestTemplate rest;
+    private final boolean passthrough;
+    private final WireFormat wireFormat;
+
+    public RestTemplateTransport(RestTemplate rest, boolean passthrough, WireFormat wireFormat) {
+        this.rest = rest;
+        this.passthrough = passthrough;
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public WireFormat wireFormat() {
+        return wireFormat;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+        if (passthrough) {
+            return Mono.fromCallable(() -> exchangeRaw(method, path, parameters, requestEntity));
+        }
+        return Mono.fromCallable(() -> exchangeObject(method, path, parameters, requestEntity));
+    }
+
+    @Override
+    public Mono<ResponseEntity<StreamingResponseBody>> stream(String path, HttpHeaders headers) {
+        return Mono.fromCallable(() -> {
+            ClientHttpRequest request = rest.getRequestFactory()
+                    .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+            request.getHeaders().addAll(headers);
+            ClientHttpResponse response = request.execute();
+            StreamingResponseBody body = out -> {
+                try (response) {
+                    response.getBody().transferTo(out);
+                }
+            };
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(ServerTransport.passthroughHeaders(response.getHeaders()))
+                    .body(body);
+        });
+    }
+
+    /**
+     * The body is streamed by the pooled HttpComponents request factory; a factory that cannot stream buffers it.
+     */
+    @Override
+    public Mono<ResponseEntity<Object>> upload(String path, HttpHeaders headers, InputStream body) {
+        return Mono.fromCallable(() -> {
+            try {
+                return rest.execute(path, HttpMethod.POST, request -> {
+                    request.getHeaders().addAll(headers);
+                    if (request instanceof StreamingHttpOutputMessage streaming) {
+                        streaming.setBody(body::transferTo);
+                    } else {
+                        body.transferTo(request.getBody());
+                    }
+                }, response -> ServerTransport.passthroughResponse(response.getStatusCode(),
+                        response.getHeaders(), response.getBody().readAllBytes()));
+            } catch (HttpStatusCodeException e) {
+                return ServerTransport.passthroughResponse(e.getStatusCode(), e.getResponseHeaders(),
+                        e.getResponseBodyAsByteArray());
+            }
+        });
+    }
+
+    private ResponseEntity<Object> exchangeObject(HttpMethod method, String path,
+                                                  @Nullable Map<String, Object> parameters,
+                                                  HttpEntity<Object> requestEntity) {
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .body(ServerTransport.jsonBody(e.getResponseHeaders(), e.getResponseBodyAsByteArray()));
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private ResponseEntity<Object> exchangeRaw(HttpMethod method, String path,
+                                               @Nullable Map<String, Object> parameters,
+                                               HttpEntity<Object> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ServerTransport.passthroughResponse(e.getStatusCode(), e.getResponseHeaders(),
+                    e.getResponseBodyAsByteArray());
+        }
+        return ServerTransport.passthroughResponse(shareitServerResponse.getStatusCode(),
+                shareitServerResponse.getHeaders(), shareitServerResponse.getBody());
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(ServerTransport.forwardedHeaders(response.getHeaders()))
+                    .body(response.getBody());
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sends one request to shareit-server. Blocking and reactive implementations are selected by profile.
+ */
+public interface ServerTransport {
+    String NEXT_CURSOR = "X-Next-Cursor";
+
+    /**
+     * Server headers kept when the gateway decodes the body and encodes it again itself.
+     */
+    List<String> FORWARDED_HEADERS = List.of(NEXT_CURSOR);
+
+    List<String> PASSTHROUGH_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            NEXT_CURSOR
+    );
+
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                          @Nullable Map<String, Object> parameters, @Nullable Object body);
+
+    /**
+     * Sends a GET whose response body is copied to the gateway client as it arrives, never buffered whole.
+     * Status and {@link #PASSTHROUGH_HEADERS} are known when the returned {@link Mono} completes; the
+     * server connection stays open until the streaming body has been written.
+     */
+    Mono<ResponseEntity<StreamingResponseBody>> stream(String path, HttpHeaders headers);
+
+    /**
+     * Sends a POST whose body is copied from {@code body} as it is read, never buffered whole. The server
+     * response is passed through as bytes, whatever the transport's passthrough setting.
+     */
+    Mono<ResponseEntity<Object>> upload(String path, HttpHeaders headers, InputStream body);
+
+    WireFormat wireFormat();
+
+    static ResponseEntity<Object> passthroughResponse(HttpStatusCode status, @Nullable HttpHeaders serverHeaders,
+                                                      @Nullable byte[] body) {
+        HttpHeaders headers = passthroughHeaders(serverHeaders);
+        if (body != null && WireFormat.isSmile(headers.getContentType())) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            return ResponseEntity.status(status).headers(headers).body(WireFormat.smileToJson(body));
+        }
+        return ResponseEntity.status(status).headers(headers).body(body);
+    }
+
+    static byte[] jsonBody(@Nullable HttpHeaders serverHeaders, byte[] body) {
+        boolean smile = serverHeaders != null && WireFormat.isSmile(serverHeaders.getContentType());
+        return smile ? WireFormat.smileToJson(body) : body;
+    }
+
+    static HttpHeaders passthroughHeaders(@Nullable HttpHeaders serverHeaders) {
+        return copyHeaders(serverHeaders, PASSTHROUGH_HEADERS);
+    }
+
+    static HttpHeaders forwardedHeaders(@Nullable HttpHeaders serverHeaders) {
+        return copyHeaders(serverHeaders, FORWARDED_HEADERS);
+    }
+
+    private static HttpHeaders copyHeaders(@Nullable HttpHeaders serverHeaders, List<String> names) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders == null) {
+            return headers;
+        }
+        for (String name : names) {
+            List<String> values = serverHeaders.get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.client;
+
+@FunctionalInterface
+public interface ServerTransportFactory {
+    ServerTransport create(String baseUrl);
+}
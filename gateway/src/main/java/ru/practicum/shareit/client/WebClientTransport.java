@@ -0,0 +1,98 @@
+package ru.practicum.shareit.client;
+
+import java.io.InputStream;
+import java.util.Map;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking transport: the request is carried by the Reactor Netty event loop and
+ * no servlet thread waits for the server round trip.
+ */
+public class WebClientTransport implements ServerTransport {
+    private static final int UPLOAD_CHUNK_SIZE = 8192;
+
+    private final WebClient webClient;
+    private final boolean passthrough;
+    private final WireFormat wireFormat;
+
+    public WebClientTransport(WebClient webClient, boolean passthrough, WireFormat wireFormat) {
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public WireFormat wireFormat() {
+        return wireFormat;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters == null ? Map.of() : parameters)
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = body == null ? request : request.bodyValue(body);
+
+        if (passthrough) {
+            return spec.exchangeToMono(response -> response.toEntity(byte[].class))
+                    .map(response -> ServerTransport.passthroughResponse(response.getStatusCode(),
+                            response.getHeaders(), response.getBody()));
+        }
+        return spec.exchangeToMono(response -> response.toEntity(Object.class))
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .headers(ServerTransport.forwardedHeaders(response.getHeaders()))
+                        .body(response.getBody()));
+    }
+
+    /**
+     * Server error statuses are passed on like any other response rather than raised.
+     */
+    @Override
+    public Mono<ResponseEntity<StreamingResponseBody>> stream(String path, HttpHeaders headers) {
+        return webClient.get()
+                .uri(path)
+                .headers(requestHeaders -> requestHeaders.addAll(headers))
+                .retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> {
+                    StreamingResponseBody body = out -> DataBufferUtils.write(response.getBody(), out)
+                            .doOnNext(DataBufferUtils::release)
+                            .blockLast();
+                    return ResponseEntity.status(response.getStatusCode())
+                            .headers(ServerTransport.passthroughHeaders(response.getHeaders()))
+                            .body(body);
+                });
+    }
+
+    /**
+     * The servlet input stream blocks, so it is read on a bounded elastic thread and never on the event loop.
+     */
+    @Override
+    public Mono<ResponseEntity<Object>> upload(String path, HttpHeaders headers, InputStream body) {
+        Flux<DataBuffer> chunks = DataBufferUtils.readInputStream(() -> body,
+                        DefaultDataBufferFactory.sharedInstance, UPLOAD_CHUNK_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+        return webClient.post()
+                .uri(path)
+                .headers(requestHeaders -> requestHeaders.addAll(headers))
+                .body(BodyInserters.fromDataBuffers(chunks))
+                .exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> ServerTransport.passthroughResponse(response.getStatusCode(),
+                        response.getHeaders(), response.getBody()));
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.gateway")
+public class GatewayProperties {
+    private final Coalescing coalescing = new Coalescing();
+    private final SearchCache searchCache = new SearchCache();
+    private final RateLimit rateLimit = new RateLimit();
+    private final Resilience resilience = new Resilience();
+    private final Batch batch = new Batch();
+
+    @Getter
+    @Setter
+    public static class Coalescing {
+        private List<String> routes = new ArrayList<>();
+    }
+
+    @Getter
+    @Setter
+    public static class SearchCache {
+        private boolean enabled = true;
+        private DataSize maxSize = DataSize.ofMegabytes(32);
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+        private boolean enabled = true;
+        private double readsPerSecond = 50;
+        private int readBurst = 100;
+        private double writesPerSecond = 10;
+        private int writeBurst = 20;
+        private Duration idleTimeout = Duration.ofMinutes(1);
+        private Duration evictionInterval = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Resilience {
+        private boolean enabled = true;
+        private int maxConcurrentCalls = 50;
+        private Map<String, Integer> clientMaxConcurrentCalls = new HashMap<>();
+        private Duration maxWait = Duration.ofMillis(100);
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 80;
+        private Duration slowCallDuration = Duration.ofSeconds(3);
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitInOpenState = Duration.ofSeconds(10);
+        private int permittedCallsInHalfOpenState = 5;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        private int maxRequests = 20;
+        private int maxConcurrency = 4;
+    }
+}
@@ -1,41 +1,221 @@
 package ru.practicum.shareit.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientResilienceFactory;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.RestTemplateTransport;
+import ru.practicum.shareit.client.ServerTransportFactory;
+import ru.practicum.shareit.client.WebClientTransport;
+import ru.practicum.shareit.client.WireFormat;
 import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemSearchCache;
 import ru.practicum.shareit.request.ItemRequestClient;
 import ru.practicum.shareit.user.UserClient;
 
 @Configuration
+@EnableConfigurationProperties({HttpClientProperties.class, GatewayProperties.class})
 public class WebClientConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RequestCoalescer requestCoalescer(GatewayProperties properties, MeterRegistry meterRegistry) {
+        return new RequestCoalescer(properties.getCoalescing().getRoutes(), meterRegistry);
     }
 
     @Bean
-    public BookingClient bookingClient(@Value("${shareit-server.url}") String serverUrl) {
-        return new BookingClient(serverUrl, restTemplate());
+    public ClientResilienceFactory clientResilienceFactory(GatewayProperties properties, MeterRegistry meterRegistry) {
+        return new ClientResilienceFactory(properties.getResilience(), meterRegistry);
     }
 
     @Bean
-    public ItemClient itemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        return new ItemClient(serverUrl, builder);
+    public BookingClient bookingClient(@Value("${shareit-server.url}") String serverUrl,
+                                       ServerTransportFactory transports, RequestCoalescer coalescer,
+                                       ClientResilienceFactory resilience) {
+        BookingClient client = new BookingClient(serverUrl, transports);
+        client.setCoalescer(coalescer);
+        configureResilience(client, resilience, "bookings");
+        return client;
     }
 
     @Bean
-    public ItemRequestClient itemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        return new ItemRequestClient(serverUrl, builder);
+    public ItemSearchCache itemSearchCache(GatewayProperties properties, MeterRegistry meterRegistry) {
+        GatewayProperties.SearchCache searchCache = properties.getSearchCache();
+        return new ItemSearchCache(searchCache.isEnabled(), searchCache.getMaxSize().toBytes(),
+                searchCache.getTtl(), meterRegistry);
     }
 
     @Bean
-    public UserClient userClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        return new UserClient(serverUrl, builder);
+    public ItemClient itemClient(@Value("${shareit-server.url}") String serverUrl,
+                                 ServerTransportFactory transports, RequestCoalescer coalescer,
+                                 ItemSearchCache itemSearchCache, ClientResilienceFactory resilience) {
+        ItemClient client = new ItemClient(serverUrl, transports, itemSearchCache);
+        client.setCoalescer(coalescer);
+        configureResilience(client, resilience, "items");
+        return client;
+    }
+
+    @Bean
+    public ItemRequestClient itemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                                               ServerTransportFactory transports, RequestCoalescer coalescer,
+                                               ClientResilienceFactory resilience) {
+        ItemRequestClient client = new ItemRequestClient(serverUrl, transports);
+        client.setCoalescer(coalescer);
+        configureResilience(client, resilience, "requests");
+        return client;
+    }
+
+    @Bean
+    public UserClient userClient(@Value("${shareit-server.url}") String serverUrl,
+                                 ServerTransportFactory transports, RequestCoalescer coalescer,
+                                 ClientResilienceFactory resilience) {
+        UserClient client = new UserClient(serverUrl, transports);
+        client.setCoalescer(coalescer);
+        configureResilience(client, resilience, "users");
+        return client;
+    }
+
+    /**
+     * Smile mapper for the server link only. It is deliberately not exposed as a bean or an MVC
+     * converter, so responses to external clients are still negotiated as JSON.
+     */
+    private static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory()).build();
+    }
+
+    private static void configureResilience(BaseClient client, ClientResilienceFactory resilience, String name) {
+        if (resilience.isEnabled()) {
+            client.setResilience(resilience.create(name));
+        }
+    }
+
+    @Configuration
+    @Profile("!reactive")
+    static class BlockingTransportConfig {
+
+        @Bean(destroyMethod = "close")
+        public PoolingHttpClientConnectionManager serverConnectionManager(HttpClientProperties properties) {
+            return PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(properties.getMaxTotal())
+                    .setMaxConnPerRoute(properties.getMaxPerRoute())
+                    .setDefaultConnectionConfig(ConnectionConfig.custom()
+                            .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                            .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                            .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                            .setTimeToLive(TimeValue.of(properties.getTimeToLive()))
+                            .build())
+                    .build();
+        }
+
+        @Bean(destroyMethod = "close")
+        public CloseableHttpClient serverHttpClient(PoolingHttpClientConnectionManager serverConnectionManager,
+                                                    HttpClientProperties properties) {
+            TimeValue keepAlive = TimeValue.of(properties.getKeepAlive());
+            return HttpClients.custom()
+                    .setConnectionManager(serverConnectionManager)
+                    .setKeepAliveStrategy((response, context) -> keepAlive)
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.of(properties.getIdleEviction()))
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                            .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+                            .build())
+                    .build();
+        }
+
+        @Bean
+        public HttpComponentsClientHttpRequestFactory serverRequestFactory(CloseableHttpClient serverHttpClient) {
+            return new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+        }
+
+        @Bean
+        public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(serverConnectionManager, "shareit-server");
+        }
+
+        @Bean
+        public ServerTransportFactory serverTransportFactory(RestTemplateBuilder builder,
+                                                             HttpComponentsClientHttpRequestFactory serverRequestFactory,
+                                                             Jackson2ObjectMapperBuilder mapperBuilder,
+                                                             @Value("${shareit-server.passthrough:false}") boolean passthrough,
+                                                             @Value("${shareit-server.wire-format:json}") WireFormat wireFormat) {
+            RestTemplateBuilder pooled = builder.requestFactory(() -> serverRequestFactory);
+            if (wireFormat == WireFormat.SMILE) {
+                pooled = pooled.additionalMessageConverters(
+                        new MappingJackson2SmileHttpMessageConverter(smileMapper(mapperBuilder)));
+            }
+            RestTemplateBuilder configured = pooled;
+            return baseUrl -> new RestTemplateTransport(
+                    configured.uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl)).build(),
+                    passthrough, wireFormat);
+        }
+    }
+
+    @Configuration
+    @Profile("reactive")
+    static class ReactiveTransportConfig {
+
+        @Bean(destroyMethod = "dispose")
+        public ConnectionProvider serverConnectionProvider(HttpClientProperties properties) {
+            return ConnectionProvider.builder("shareit-server")
+                    .maxConnections(properties.getMaxPerRoute())
+                    .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                    .maxIdleTime(properties.getKeepAlive())
+                    .maxLifeTime(properties.getTimeToLive())
+                    .evictInBackground(properties.getIdleEviction())
+                    .metrics(true)
+                    .build();
+        }
+
+        @Bean
+        public ServerTransportFactory serverTransportFactory(WebClient.Builder builder,
+                                                             ConnectionProvider serverConnectionProvider,
+                                                             HttpClientProperties properties,
+                                                             Jackson2ObjectMapperBuilder mapperBuilder,
+                                                             @Value("${shareit-server.passthrough:false}") boolean passthrough,
+                                                             @Value("${shareit-server.wire-format:json}") WireFormat wireFormat) {
+            HttpClient httpClient = HttpClient.create(serverConnectionProvider)
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                    .responseTimeout(properties.getReadTimeout());
+            WebClient.Builder pooled = builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+            if (wireFormat == WireFormat.SMILE) {
+                ObjectMapper smileMapper = smileMapper(mapperBuilder);
+                pooled.codecs(codecs -> {
+                    codecs.customCodecs().register(new Jackson2SmileEncoder(smileMapper));
+                    codecs.customCodecs().register(new Jackson2SmileDecoder(smileMapper));
+                });
+            }
+            return baseUrl -> new WebClientTransport(pooled.clone().baseUrl(baseUrl).build(), passthrough, wireFormat);
+        }
     }
 }
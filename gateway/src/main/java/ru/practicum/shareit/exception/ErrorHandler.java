@@ -1,5 +1,7 @@
 package ru.practicum.shareit.exception;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,6 +43,12 @@ public class ErrorHandler {
         return new ResponseEntity<>(new ExceptionDto("Unknown state: UNSUPPORTED_STATUS"), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler({CallNotPermittedException.class, BulkheadFullException.class})
+    public ResponseEntity<ExceptionDto> handleUpstreamUnavailable(RuntimeException e) {
+        log.warn("503 {}", e.getMessage());
+        return new ResponseEntity<>(new ExceptionDto("Service temporarily unavailable"), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @Getter
     @RequiredArgsConstructor
     private static class ExceptionDto {
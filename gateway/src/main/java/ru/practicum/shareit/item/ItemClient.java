@@ -1,25 +1,39 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new org.springframework.web.util.DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .build()
-        );
+    private final ItemSearchCache searchCache;
+
+    public ItemClient(String serverUrl, ServerTransportFactory transports, ItemSearchCache searchCache) {
+        super(serverUrl, API_PREFIX, transports);
+        this.searchCache = searchCache;
     }
 
-    public ResponseEntity<Object> getItems(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getItems(long userId, int from, int size, @Nullable String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "cursor", cursor,
+                    "size", size
+            );
+            return get("?cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -27,32 +41,89 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
+    public Mono<ResponseEntity<StreamingResponseBody>> exportItems(long userId) {
+        return stream("/export", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getItem(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<Object>> getComments(long itemId, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/" + itemId + "/comments?cursor={cursor}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getFreeItems(ItemAvailabilityRequest request) {
+        return post("/availability", request);
     }
 
-    public ResponseEntity<Object> patchItem(long userId, long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, null, itemDto);
+    public Mono<ResponseEntity<Object>> createItem(long userId, ItemDto itemDto) {
+        return post("", userId, itemDto)
+                .doOnNext(this::invalidateSearchOnSuccess);
     }
 
-    public ResponseEntity<Object> deleteItem(long userId, long itemId) {
-        return delete("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> createItems(long userId, List<?> items) {
+        return post("/bulk", userId, items)
+                .doOnNext(this::invalidateSearchOnSuccess);
     }
 
-    public ResponseEntity<Object> getItemByText(String text, int from, int size) {
+    public Mono<ResponseEntity<Object>> createItemsFromStream(long userId, InputStream ndjson) {
+        return upload("/bulk", userId, MediaType.APPLICATION_NDJSON, ndjson)
+                .doOnNext(this::invalidateSearchOnSuccess);
+    }
+
+    public Mono<ResponseEntity<Object>> patchItem(long userId, long itemId, ItemDto itemDto) {
+        return patch("/" + itemId, userId, null, itemDto)
+                .doOnNext(this::invalidateSearchOnSuccess);
+    }
+
+    public Mono<ResponseEntity<Object>> deleteItem(long userId, long itemId) {
+        return delete("/" + itemId, userId)
+                .doOnNext(this::invalidateSearchOnSuccess);
+    }
+
+    public Mono<ResponseEntity<Object>> deleteItems() {
+        return delete("")
+                .doOnNext(this::invalidateSearchOnSuccess);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemByText(String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return searchCache.get(text, from, size,
+                () -> get("/search?text={text}&from={from}&size={size}", null, parameters));
     }
 
-    public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> suggest(String prefix, int limit) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "limit", limit
+        );
+        return get("/suggest?prefix={prefix}&limit={limit}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> createComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    private void invalidateSearchOnSuccess(ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            searchCache.invalidate();
+        }
+    }
 }
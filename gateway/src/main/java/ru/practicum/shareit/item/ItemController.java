@@ -2,21 +2,28 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
-import static org.springframework.http.RequestEntity.delete;
-
 @Slf4j
 @Validated
 @Controller
@@ -27,59 +34,111 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllBy(@RequestHeader("X-Sharer-User-Id") @Positive long sharerId,
+    public Mono<ResponseEntity<Object>> getAllBy(@RequestHeader("X-Sharer-User-Id") @Positive long sharerId,
                                            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                           @RequestParam(defaultValue = "100") @Positive int size) {
-        return itemClient.getItems(sharerId, from, size);
+                                           @RequestParam(defaultValue = "100") @Positive int size,
+                                           @RequestParam(required = false) @Size(max = 64) String cursor) {
+        return itemClient.getItems(sharerId, from, size, cursor);
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> export(
+            @RequestHeader("X-Sharer-User-Id") @Positive long sharerId) {
+        return itemClient.exportItems(sharerId);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") @Positive long sharerId,
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") @Positive long sharerId,
                                           @PathVariable long itemId) {
         log.info("Get sharerId {}, itemId={}", sharerId, itemId);
         return itemClient.getItem(sharerId, itemId);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public Mono<ResponseEntity<Object>> getComments(@PathVariable long itemId,
+                                              @RequestParam(defaultValue = "") @Size(max = 128) String cursor,
+                                              @RequestParam(defaultValue = "20") @Positive @Max(100) int size) {
+        return itemClient.getComments(itemId, cursor, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@PathVariable long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime to) {
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
+    @PostMapping("/availability")
+    public Mono<ResponseEntity<Object>> getFreeItems(@Valid @RequestBody ItemAvailabilityRequest request) {
+        return itemClient.getFreeItems(request);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> getByText(@RequestParam String text,
+    public Mono<ResponseEntity<Object>> getByText(@RequestParam String text,
                                             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
                                             @RequestParam(defaultValue = "100") @Positive int size) {
 
         if (text.isBlank()) {
-            return new ResponseEntity<>(List.of(), HttpStatus.OK);
+            return Mono.just(new ResponseEntity<>(List.of(), HttpStatus.OK));
         } else {
             return itemClient.getItemByText(text, from, size);
         }
     }
 
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<Object>> suggest(@RequestParam String prefix,
+                                          @RequestParam(defaultValue = "10") @Positive @Max(50) int limit) {
+        if (prefix.isBlank()) {
+            return Mono.just(new ResponseEntity<>(List.of(), HttpStatus.OK));
+        }
+        return itemClient.suggest(prefix, limit);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") @Positive long sharerId,
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") @Positive long sharerId,
                                          @Valid @RequestBody ItemDto itemDto) {
 
         return itemClient.createItem(sharerId, itemDto);
     }
 
+    /**
+     * Rows are validated by the server, which reports every invalid row by index instead of failing the import.
+     */
+    @PostMapping("/bulk")
+    public Mono<ResponseEntity<Object>> createAll(@RequestHeader("X-Sharer-User-Id") @Positive long sharerId,
+                                            @RequestBody List<ItemDto> items) {
+        return itemClient.createItems(sharerId, items);
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Object>> createAllFromStream(@RequestHeader("X-Sharer-User-Id") @Positive long sharerId,
+                                                      InputStream body) {
+        return itemClient.createItemsFromStream(sharerId, body);
+    }
+
     @PostMapping("{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
                                                 @PathVariable long itemId,
                                                 @Valid @RequestBody CommentDto commentDto) {
         return itemClient.createComment(userId, itemId, commentDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") @Positive long sharerId,
+    public Mono<ResponseEntity<Object>> update(@RequestHeader("X-Sharer-User-Id") @Positive long sharerId,
                                          @PathVariable long id, @RequestBody ItemDto itemDto) {
         return itemClient.patchItem(sharerId, id, itemDto);
     }
 
     @DeleteMapping("/{id}")
-    public void deleteById(@RequestHeader("X-Sharer-User-Id") @Positive long sharerId,
-                           @PathVariable long id) {
-        delete("/" + id, sharerId);
+    public Mono<ResponseEntity<Object>> deleteById(@RequestHeader("X-Sharer-User-Id") @Positive long sharerId,
+                                             @PathVariable long id) {
+        return itemClient.deleteItem(sharerId, id);
     }
 
     @DeleteMapping
-    public void deleteAll() {
-        delete("");
+    public Mono<ResponseEntity<Object>> deleteAll() {
+        return itemClient.deleteItems();
     }
 }
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches public item search responses. Every item write bumps the write version, so responses
+ * loaded before the write are never served after it.
+ */
+public class ItemSearchCache {
+    private static final int ESTIMATED_ELEMENT_BYTES = 512;
+    private static final int ESTIMATED_RESPONSE_BYTES = 1024;
+
+    private final boolean enabled;
+    private final AtomicLong writeVersion = new AtomicLong();
+    private final Cache<SearchKey, CachedResponse> cache;
+
+    public ItemSearchCache(boolean enabled, long maxBytes, Duration ttl, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((SearchKey key, CachedResponse value) -> value.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items.search");
+    }
+
+    public Mono<ResponseEntity<Object>> get(String text, int from, int size,
+                                            Supplier<Mono<ResponseEntity<Object>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        SearchKey key = new SearchKey(text.trim().toLowerCase(Locale.ROOT), from, size);
+        return Mono.defer(() -> {
+            long version = writeVersion.get();
+            CachedResponse cached = cache.getIfPresent(key);
+            if (cached != null && cached.version() == version) {
+                return Mono.just(cached.response());
+            }
+            return loader.get()
+                    .doOnNext(response -> {
+                        if (response.getStatusCode().is2xxSuccessful() && writeVersion.get() == version) {
+                            cache.put(key, new CachedResponse(version, response, weigh(response)));
+                        }
+                    });
+        });
+    }
+
+    public void invalidate() {
+        writeVersion.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static int weigh(ResponseEntity<Object> response) {
+        Object body = response.getBody();
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (body instanceof Collection<?> elements) {
+            return Math.max(1, elements.size() * ESTIMATED_ELEMENT_BYTES);
+        }
+        return ESTIMATED_RESPONSE_BYTES;
+    }
+
+    private record SearchKey(String text, int from, int size) {
+    }
+
+    private record CachedResponse(long version, ResponseEntity<Object> response, int weight) {
+    }
+}
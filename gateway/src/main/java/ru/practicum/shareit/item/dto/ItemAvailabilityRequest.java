@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityRequest {
+    @NotEmpty
+    @Size(max = 500)
+    private List<@NotNull @Positive Long> itemIds;
+    @NotNull
+    private LocalDateTime from;
+    @NotNull
+    private LocalDateTime to;
+}
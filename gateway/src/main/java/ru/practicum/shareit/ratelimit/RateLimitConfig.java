@@ -0,0 +1,28 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.config.GatewayProperties;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit.gateway.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public TokenBucketRateLimiter tokenBucketRateLimiter(GatewayProperties properties) {
+        GatewayProperties.RateLimit rateLimit = properties.getRateLimit();
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(rateLimit.getReadsPerSecond(),
+                rateLimit.getReadBurst(), rateLimit.getWritesPerSecond(), rateLimit.getWriteBurst(),
+                rateLimit.getIdleTimeout());
+        limiter.startEviction(rateLimit.getEvictionInterval());
+        return limiter;
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(TokenBucketRateLimiter tokenBucketRateLimiter,
+                                           MeterRegistry meterRegistry) {
+        return new RateLimitFilter(tokenBucketRateLimiter, meterRegistry);
+    }
+}
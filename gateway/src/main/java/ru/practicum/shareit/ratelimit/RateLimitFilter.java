@@ -0,0 +1,76 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Set<String> READ_METHODS = Set.of(
+            HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final Counter rejectedReads;
+    private final Counter rejectedWrites;
+
+    public RateLimitFilter(TokenBucketRateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.rejectedReads = Counter.builder("gateway.ratelimit.rejected")
+                .tag("kind", "read")
+                .register(meterRegistry);
+        this.rejectedWrites = Counter.builder("gateway.ratelimit.rejected")
+                .tag("kind", "write")
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.buckets", rateLimiter, TokenBucketRateLimiter::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Long userId = parseUserId(request.getHeader(USER_HEADER));
+        if (userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean isWrite = !READ_METHODS.contains(request.getMethod());
+        long waitNanos = rateLimiter.tryAcquire(userId, isWrite, System.nanoTime());
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        (isWrite ? rejectedWrites : rejectedReads).increment();
+        log.info("429 user {} exceeded {} limit", userId, isWrite ? "write" : "read");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(TokenBucketRateLimiter.toRetryAfterSeconds(waitNanos)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\"}");
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.ratelimit;
+
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user token buckets with separate read and write budgets.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the theoretical arrival time of the next
+ * request (GCRA), so a check is one CAS loop without locks. A bucket whose arrival time lies
+ * further in the past than the idle timeout is full again and can be dropped without losing state;
+ * {@link #startEviction(Duration)} does that periodically on a private daemon thread.
+ */
+public class TokenBucketRateLimiter {
+    private final Budget read;
+    private final Budget write;
+    private final long idleNanos;
+    private final Map<Long, UserBuckets> buckets = new ConcurrentHashMap<>();
+    private ScheduledExecutorService evictor;
+
+    public TokenBucketRateLimiter(double readPerSecond, int readBurst,
+                                  double writePerSecond, int writeBurst,
+                                  Duration idleTimeout) {
+        this.read = new Budget(readPerSecond, readBurst);
+        this.write = new Budget(writePerSecond, writeBurst);
+        this.idleNanos = idleTimeout.toNanos();
+    }
+
+    /**
+     * Takes one token and returns 0, or returns how many nanoseconds the caller has to wait.
+     */
+    public long tryAcquire(long userId, boolean isWrite, long nowNanos) {
+        UserBuckets user = buckets.computeIfAbsent(userId, id -> new UserBuckets(nowNanos));
+        return isWrite ? write.tryAcquire(user.write, nowNanos) : read.tryAcquire(user.read, nowNanos);
+    }
+
+    public void evictIdle(long nowNanos) {
+        long idleBefore = nowNanos - idleNanos;
+        buckets.values().removeIf(user -> user.read.get() - idleBefore < 0 && user.write.get() - idleBefore < 0);
+    }
+
+    public synchronized void startEviction(Duration interval) {
+        if (evictor != null) {
+            return;
+        }
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = interval.toMillis();
+        evictor.scheduleWithFixedDelay(() -> evictIdle(System.nanoTime()),
+                intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stopEviction() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+            evictor = null;
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static final class UserBuckets {
+        private final AtomicLong read;
+        private final AtomicLong write;
+
+        private UserBuckets(long nowNanos) {
+            this.read = new AtomicLong(nowNanos);
+            this.write = new AtomicLong(nowNanos);
+        }
+    }
+
+    private static final class Budget {
+        private final long emissionNanos;
+        private final long toleranceNanos;
+
+        private Budget(double perSecond, int burst) {
+            this.emissionNanos = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+            this.toleranceNanos = emissionNanos * Math.max(1, burst);
+        }
+
+        private long tryAcquire(AtomicLong theoreticalArrival, long nowNanos) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long next = Math.max(current - nowNanos, 0) + nowNanos + emissionNanos;
+                long wait = next - nowNanos - toleranceNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
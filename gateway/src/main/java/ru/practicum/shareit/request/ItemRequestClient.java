@@ -1,11 +1,11 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
 import java.util.Map;
 
@@ -14,27 +14,23 @@ public class ItemRequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .build()
-        );
+    public ItemRequestClient(String serverUrl, ServerTransportFactory transports) {
+        super(serverUrl, API_PREFIX, transports);
     }
 
-    public ResponseEntity<Object> getItemRequests(long userId) {
+    public Mono<ResponseEntity<Object>> getItemRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemRequest(long userId, long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequest(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getAllAnotherUsers(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAllAnotherUsers(long userId, int from, int size) {
         return get("/all?from={from}&size={size}", userId, Map.of("from", from, "size", size));
     }
 
-    public ResponseEntity<Object> create(long userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> create(long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 }
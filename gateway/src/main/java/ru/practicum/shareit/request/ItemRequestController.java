@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import jakarta.validation.Valid;
@@ -20,25 +21,25 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") @Positive long requesterId) {
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader("X-Sharer-User-Id") @Positive long requesterId) {
         return itemRequestClient.getItemRequests(requesterId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") @Positive long userId,
                                           @PathVariable @Positive long requestId) {
         return itemRequestClient.getItemRequest(userId, requestId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllAnotherUsers(@RequestHeader("X-Sharer-User-Id") @Positive long requesterId,
+    public Mono<ResponseEntity<Object>> getAllAnotherUsers(@RequestHeader("X-Sharer-User-Id") @Positive long requesterId,
                                                      @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero int from,
                                                      @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
         return itemRequestClient.getAllAnotherUsers(requesterId, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") @Positive long requesterId,
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") @Positive long requesterId,
                                          @RequestBody @Valid ItemRequestDto itemRequestDto) {
         return itemRequestClient.create(requesterId, itemRequestDto);
     }
@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.util.Create;
 import ru.practicum.shareit.util.Update;
@@ -20,27 +21,27 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return userClient.getUsers();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@PathVariable @Positive long id) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable @Positive long id) {
         return userClient.getUser(id);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@Validated(Create.class) @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> create(@Validated(Create.class) @RequestBody UserDto userDto) {
         return userClient.create(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> patch(@PathVariable long id, @Validated(Update.class) @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> patch(@PathVariable long id, @Validated(Update.class) @RequestBody UserDto userDto) {
         return userClient.patchUser(id, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteById(@PathVariable @Positive long userId) {
+    public Mono<ResponseEntity<Object>> deleteById(@PathVariable @Positive long userId) {
 
         return userClient.deleteUser(userId);
     }
@@ -0,0 +1,127 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the blocking and the reactive gateway: one operation is a burst of {@code concurrency}
+ * simultaneous {@code GET /bookings} calls through a real gateway to a stub server that answers after
+ * {@code serverLatencyMs}. Tomcat is capped at {@value #TOMCAT_THREADS} threads in both modes, so the blocking
+ * gateway serves the burst in waves of that size while the reactive one keeps all calls in flight at once.
+ * Rate limiting and bulkheads are off, as they would cap both modes alike.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GatewayLoadBenchmark {
+    private static final int TOMCAT_THREADS = 50;
+    private static final byte[] PAGE = "[]".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"blocking", "reactive"})
+    public String mode;
+
+    @Param({"1000"})
+    public int concurrency;
+
+    @Param({"100"})
+    public int serverLatencyMs;
+
+    private ExecutorService stubExecutor;
+    private HttpServer stubServer;
+    private ConfigurableApplicationContext gateway;
+    private HttpClient client;
+    private String gatewayUrl;
+
+    @Setup
+    public void setUp() throws IOException {
+        stubExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        stubServer = HttpServer.create(new InetSocketAddress("localhost", 0), concurrency);
+        stubServer.setExecutor(stubExecutor);
+        stubServer.createContext("/bookings", exchange -> {
+            try {
+                Thread.sleep(serverLatencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, PAGE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(PAGE);
+            }
+        });
+        stubServer.start();
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItGateway.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "shareit-server.url=http://localhost:" + stubServer.getAddress().getPort(),
+                        "shareit-server.http.max-total=" + concurrency,
+                        "shareit-server.http.max-per-route=" + concurrency,
+                        "shareit.gateway.rate-limit.enabled=false",
+                        "shareit.gateway.resilience.enabled=false",
+                        "logging.level.org.springframework.web.client.RestTemplate=WARN");
+        if ("reactive".equals(mode)) {
+            builder.profiles("reactive");
+        }
+        gateway = builder.run();
+        int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+        gatewayUrl = "http://localhost:" + port + "/bookings";
+        client = HttpClient.newHttpClient();
+    }
+
+    @TearDown
+    public void tearDown() {
+        gateway.close();
+        stubServer.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burst() {
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(gatewayUrl))
+                    .header("X-Sharer-User-Id", Integer.toString(i + 1))
+                    .build();
+            calls[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Gateway answered " + response.statusCode());
+                        }
+                    });
+        }
+        CompletableFuture.allOf(calls).join();
+        return calls.length;
+    }
+}
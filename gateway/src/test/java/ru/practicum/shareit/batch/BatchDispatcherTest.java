@@ -0,0 +1,220 @@
+package ru.practicum.shareit.batch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.ServerTransportFactory;
+import ru.practicum.shareit.client.WireFormat;
+import ru.practicum.shareit.config.GatewayProperties;
+import ru.practicum.shareit.exception.ValidateException;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.ItemSearchCache;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.request.ItemRequestController;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch sub-requests dispatched to the real controllers and clients over a stub transport. The stub answers
+ * with the server path it was sent, so each test sees which client call a sub-request resolved to.
+ */
+class BatchDispatcherTest {
+    private static final String SERVER_URL = "http://server";
+    private static final long USER_ID = 1L;
+
+    private final Queue<String> serverCalls = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final GatewayProperties properties = new GatewayProperties();
+    private Duration serverDelay = Duration.ZERO;
+    private BatchDispatcher dispatcher;
+    private BatchController controller;
+
+    @BeforeEach
+    void setUp() {
+        ServerTransportFactory transports = baseUrl -> new StubTransport(baseUrl.substring(SERVER_URL.length()));
+        ItemSearchCache searchCache = new ItemSearchCache(false, 1024, Duration.ofSeconds(1),
+                new SimpleMeterRegistry());
+        dispatcher = new BatchDispatcher(
+                new UserController(new UserClient(SERVER_URL, transports)),
+                new ItemController(new ItemClient(SERVER_URL, transports, searchCache)),
+                new BookingController(new BookingClient(SERVER_URL, transports)),
+                new ItemRequestController(new ItemRequestClient(SERVER_URL, transports)));
+        controller = new BatchController(dispatcher, properties);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/users,                  /users",
+            "/users/7,                /users/7",
+            "/items?from=0&size=5,    /items?from={from}&size={size}",
+            "/items/search?text=saw,  /items/search?",
+            "/items/suggest?prefix=s, /items/suggest?",
+            "/items/7,                /items/7",
+            "/bookings,               /bookings?",
+            "/bookings/owner,         /bookings/owner?",
+            "/bookings/7,             /bookings/7",
+            "/requests,               /requests",
+            "/requests/all,           /requests/all?",
+            "/requests/7,             /requests/7"
+    })
+    void dispatch_shouldResolveEachRouteToItsHandler(String path, String serverPath) {
+        BatchResponseDto response = dispatch(new BatchRequestDto.SubRequest("1", "GET", path), USER_ID);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(1, serverCalls.size());
+        String serverCall = serverCalls.peek();
+        assertTrue(serverCall.startsWith("GET " + serverPath), serverCall);
+    }
+
+    @Test
+    void dispatch_shouldMatchFixedSegmentsBeforeVariables() {
+        assertEquals("/items/search?text={text}&from={from}&size={size}",
+                dispatch(new BatchRequestDto.SubRequest("1", "GET", "/items/search?text=saw"), USER_ID).getBody());
+        assertEquals("/items/suggest?prefix={prefix}&limit={limit}",
+                dispatch(new BatchRequestDto.SubRequest("2", "GET", "/items/suggest?prefix=s"), USER_ID).getBody());
+        assertEquals("/requests/all?from={from}&size={size}",
+                dispatch(new BatchRequestDto.SubRequest("3", "GET", "/requests/all"), USER_ID).getBody());
+        assertTrue(((String) dispatch(new BatchRequestDto.SubRequest("4", "GET", "/bookings/owner"), USER_ID)
+                .getBody()).startsWith("/bookings/owner?"));
+    }
+
+    @Test
+    void dispatch_shouldReportStatusPerSubRequest() {
+        assertEquals(200, dispatch(new BatchRequestDto.SubRequest("ok", "GET", "/items/7"), USER_ID).getStatus());
+        assertEquals(404, dispatch(new BatchRequestDto.SubRequest("missing", "GET", "/items/404"), USER_ID)
+                .getStatus());
+        assertEquals(502, dispatch(new BatchRequestDto.SubRequest("down", "GET", "/items/500"), USER_ID)
+                .getStatus());
+        assertEquals(404, dispatch(new BatchRequestDto.SubRequest("route", "GET", "/nowhere"), USER_ID)
+                .getStatus());
+        assertEquals(405, dispatch(new BatchRequestDto.SubRequest("post", "POST", "/items"), USER_ID)
+                .getStatus());
+        assertEquals(400, dispatch(new BatchRequestDto.SubRequest("user", "GET", "/items/7"), null)
+                .getStatus());
+        assertEquals(400, dispatch(new BatchRequestDto.SubRequest("nan", "GET", "/items/seven"), USER_ID)
+                .getStatus());
+    }
+
+    @Test
+    void dispatch_shouldRejectIntParameterOutOfRange() {
+        BatchResponseDto response = dispatch(
+                new BatchRequestDto.SubRequest("1", "GET", "/items/search?text=saw&size=3000000000"), USER_ID);
+
+        assertEquals(400, response.getStatus());
+        assertEquals(Map.of("error", "Parameter 'size' is out of range"), response.getBody());
+        assertTrue(serverCalls.isEmpty());
+    }
+
+    @Test
+    void batch_shouldRejectMoreRequestsThanAllowed() {
+        properties.getBatch().setMaxRequests(3);
+
+        assertThrows(ValidateException.class, () -> controller.batch(USER_ID, batchOf(4)));
+        assertTrue(serverCalls.isEmpty());
+    }
+
+    @Test
+    void batch_shouldBoundConcurrencyAndKeepRequestOrder() {
+        properties.getBatch().setMaxConcurrency(2);
+        serverDelay = Duration.ofMillis(50);
+
+        ResponseEntity<Object> response = controller.batch(USER_ID, batchOf(6)).block();
+
+        assertNotNull(response);
+        List<?> results = (List<?>) response.getBody();
+        assertNotNull(results);
+        List<String> ids = new ArrayList<>();
+        for (Object result : results) {
+            BatchResponseDto dto = (BatchResponseDto) result;
+            assertEquals(200, dto.getStatus());
+            ids.add(dto.getId());
+        }
+        assertEquals(List.of("0", "1", "2", "3", "4", "5"), ids);
+        assertEquals(6, serverCalls.size());
+        assertTrue(maxInFlight.get() <= 2, "max in flight " + maxInFlight.get());
+    }
+
+    private BatchResponseDto dispatch(BatchRequestDto.SubRequest subRequest, @Nullable Long userId) {
+        return dispatcher.dispatch(subRequest, userId).block();
+    }
+
+    private static BatchRequestDto batchOf(int size) {
+        List<BatchRequestDto.SubRequest> requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            requests.add(new BatchRequestDto.SubRequest(String.valueOf(i), "GET", "/users/" + (i + 1)));
+        }
+        return new BatchRequestDto(requests);
+    }
+
+    /**
+     * Answers every exchange with its own path. Item 404 is missing on the server and item 500 fails in
+     * transit, as a refused connection would.
+     */
+    private class StubTransport implements ServerTransport {
+        private final String prefix;
+
+        StubTransport(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters,
+                                                     @Nullable Object body) {
+            String serverPath = prefix + path;
+            return Mono.defer(() -> {
+                serverCalls.add(method.name() + " " + serverPath);
+                if (serverPath.equals("/items/500")) {
+                    return Mono.error(new IllegalStateException("Connection refused"));
+                }
+                HttpStatus status = serverPath.equals("/items/404") ? HttpStatus.NOT_FOUND : HttpStatus.OK;
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return Mono.just(ResponseEntity.status(status).<Object>body(serverPath))
+                        .delayElement(serverDelay)
+                        .doFinally(signal -> inFlight.decrementAndGet());
+            });
+        }
+
+        @Override
+        public Mono<ResponseEntity<StreamingResponseBody>> stream(String path, HttpHeaders headers) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Mono<ResponseEntity<Object>> upload(String path, HttpHeaders headers, InputStream body) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public WireFormat wireFormat() {
+            return WireFormat.JSON;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.config.GatewayProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientResilienceFactoryTest {
+    private final AtomicInteger serverHits = new AtomicInteger();
+    private final CountDownLatch slowEntered = new CountDownLatch(1);
+    private final CountDownLatch slowRelease = new CountDownLatch(1);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GatewayProperties.Resilience properties = new GatewayProperties.Resilience();
+    private ExecutorService executor;
+    private HttpServer stubServer;
+    private StubClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        executor = Executors.newCachedThreadPool();
+        stubServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stubServer.setExecutor(executor);
+        stubServer.createContext("/stub/ok", exchange -> respond(exchange, 200));
+        stubServer.createContext("/stub/missing", exchange -> respond(exchange, 404));
+        stubServer.createContext("/stub/fail", exchange -> respond(exchange, 500));
+        stubServer.createContext("/stub/slow", exchange -> {
+            slowEntered.countDown();
+            try {
+                slowRelease.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200);
+        });
+        stubServer.start();
+
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumNumberOfCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setWaitInOpenState(Duration.ofMinutes(1));
+        properties.setMaxConcurrentCalls(1);
+        properties.setMaxWait(Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowRelease.countDown();
+        stubServer.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void circuitBreaker_shouldOpenOnServerErrorsAndFailFast() {
+        client = newClient();
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, client.get("/fail").block().getStatusCode());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, client.resilience.getCircuitBreaker().getState());
+        assertThrows(CallNotPermittedException.class, () -> client.get("/ok").block());
+        assertEquals(4, serverHits.get());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", "stub")
+                .tag("state", "open")
+                .gauge()
+                .value());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.not.permitted.calls")
+                .tag("name", "stub")
+                .functionCounter()
+                .count());
+    }
+
+    @Test
+    void circuitBreaker_shouldStayClosedOnClientErrors() {
+        client = newClient();
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(HttpStatus.NOT_FOUND, client.get("/missing").block().getStatusCode());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, client.resilience.getCircuitBreaker().getState());
+        assertEquals(HttpStatus.OK, client.get("/ok").block().getStatusCode());
+    }
+
+    @Test
+    void bulkhead_shouldRejectCallsAboveConcurrencyLimit() throws Exception {
+        client = newClient();
+
+        CompletableFuture<ResponseEntity<Object>> slow =
+                CompletableFuture.supplyAsync(() -> client.get("/slow").block(), executor);
+        assertTrue(slowEntered.await(5, TimeUnit.SECONDS));
+
+        assertThrows(BulkheadFullException.class, () -> client.get("/ok").block());
+        assertEquals(1.0, meterRegistry.get("gateway.bulkhead.rejected").tag("name", "stub").counter().count());
+
+        slowRelease.countDown();
+        assertEquals(HttpStatus.OK, slow.get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(HttpStatus.OK, client.get("/ok").block().getStatusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, client.resilience.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void bulkhead_shouldUsePerClientConcurrencyLimit() {
+        properties.getClientMaxConcurrentCalls().put("stub", 7);
+        client = newClient();
+
+        assertEquals(7, client.resilience.getBulkhead().getBulkheadConfig().getMaxConcurrentCalls());
+    }
+
+    private StubClient newClient() {
+        String serverUrl = "http://localhost:" + stubServer.getAddress().getPort();
+        ClientResilience resilience = new ClientResilienceFactory(properties, meterRegistry).create("stub");
+        return new StubClient(serverUrl, resilience);
+    }
+
+    private void respond(HttpExchange exchange, int status) throws IOException {
+        serverHits.incrementAndGet();
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static class StubClient extends BaseClient {
+        private final ClientResilience resilience;
+
+        StubClient(String serverUrl, ClientResilience resilience) {
+            super(serverUrl, "/stub", baseUrl -> new RestTemplateTransport(
+                    new RestTemplateBuilder().rootUri(baseUrl).build(), false, WireFormat.JSON));
+            this.resilience = resilience;
+            setResilience(resilience);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gateway work per proxied {@code GET /bookings} page, with and without passthrough: the server call through
+ * {@link RestTemplateTransport} plus writing the body the way Spring MVC would, to a null stream. The stub
+ * server only writes a prepared page, so the difference between the two is the gateway's decode/encode.
+ * Run with {@code -Djmh.args="PassthroughBenchmark -prof gc"} to see allocation per request as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PassthroughBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Param({"10", "100", "1000"})
+    public int bookings;
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    private final HttpHeaders headers = new HttpHeaders();
+    private ExecutorService executor;
+    private HttpServer stubServer;
+    private RestTemplateTransport decoding;
+    private RestTemplateTransport passthrough;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] page = mapper.writeValueAsBytes(bookingsPage(bookings));
+        executor = Executors.newFixedThreadPool(4);
+        stubServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stubServer.setExecutor(executor);
+        stubServer.createContext("/bookings", exchange -> {
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, page.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(page);
+            }
+        });
+        stubServer.start();
+
+        String baseUrl = "http://localhost:" + stubServer.getAddress().getPort() + "/bookings";
+        RestTemplateBuilder builder = new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl));
+        decoding = new RestTemplateTransport(builder.build(), false, WireFormat.JSON);
+        passthrough = new RestTemplateTransport(builder.build(), true, WireFormat.JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.set("X-Sharer-User-Id", "1");
+    }
+
+    @TearDown
+    public void tearDown() {
+        stubServer.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void decodeAndEncode() throws IOException {
+        ResponseEntity<Object> response = decoding.exchange(HttpMethod.GET, "?state=ALL", headers, null, null)
+                .block();
+        mapper.writeValue(OutputStream.nullOutputStream(), response.getBody());
+    }
+
+    @Benchmark
+    public void passthrough() throws IOException {
+        ResponseEntity<Object> response = passthrough.exchange(HttpMethod.GET, "?state=ALL", headers, null, null)
+                .block();
+        OutputStream.nullOutputStream().write((byte[]) response.getBody());
+    }
+
+    /**
+     * Same shape as the server's {@code BookingDtoOutput}.
+     */
+    private static List<Map<String, Object>> bookingsPage(int size) {
+        List<Map<String, Object>> page = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            page.add(Map.of(
+                    "id", i + 1,
+                    "start", START.plusDays(i).toString(),
+                    "end", START.plusDays(i + 2).toString(),
+                    "item", Map.of("id", i % 50 + 1, "name", "Cordless drill " + i % 50),
+                    "booker", Map.of("id", i % 20 + 1, "name", "Booker " + i % 20),
+                    "status", "APPROVED"));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TokenBucketRateLimiter} with millions of distinct users: the cost of a check from several threads at
+ * random users, and of one eviction pass over a map where half of the users went idle.
+ * Run with {@code -Djmh.args="TokenBucketRateLimiterBenchmark -prof gc"} to see allocation as well.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TokenBucketRateLimiterBenchmark {
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    @Param({"100000", "1000000", "5000000"})
+    public int users;
+
+    private TokenBucketRateLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        limiter = newLimiter();
+        long now = System.nanoTime();
+        for (long user = 1; user <= users; user++) {
+            limiter.tryAcquire(user, false, now);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(4)
+    public long tryAcquire() {
+        long user = ThreadLocalRandom.current().nextLong(users) + 1;
+        return limiter.tryAcquire(user, false, System.nanoTime());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public int evictIdle(HalfIdle state) {
+        state.limiter.evictIdle(state.evictAt);
+        return state.limiter.size();
+    }
+
+    private static TokenBucketRateLimiter newLimiter() {
+        return new TokenBucketRateLimiter(50, 100, 10, 20, IDLE_TIMEOUT);
+    }
+
+    /**
+     * A fresh limiter per eviction pass: odd users were last seen an idle timeout ago, even users just now.
+     */
+    @State(Scope.Thread)
+    public static class HalfIdle {
+        private TokenBucketRateLimiter limiter;
+        private long evictAt;
+
+        @Setup(Level.Invocation)
+        public void fill(TokenBucketRateLimiterBenchmark benchmark) {
+            limiter = newLimiter();
+            long idleSince = 0;
+            long activeAt = IDLE_TIMEOUT.toNanos();
+            for (long user = 1; user <= benchmark.users; user++) {
+                limiter.tryAcquire(user, (user & 1) == 0, (user & 1) == 0 ? activeAt : idleSince);
+            }
+            evictAt = activeAt + TimeUnit.SECONDS.toNanos(1);
+        }
+    }
+}
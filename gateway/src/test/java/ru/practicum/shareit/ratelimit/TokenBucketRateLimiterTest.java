@@ -0,0 +1,112 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs on a fake clock: every call is given its time in nanoseconds, so refill and eviction are exact.
+ * Reads are 50 per second with a burst of 100, writes 10 per second with a burst of 20.
+ */
+class TokenBucketRateLimiterTest {
+    private static final long USER = 1L;
+    private static final long OTHER_USER = 2L;
+    private static final long START = TimeUnit.HOURS.toNanos(1);
+    private static final long READ_INTERVAL = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long WRITE_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(1);
+
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(50, 100, 10, 20, IDLE_TIMEOUT);
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenOneRequestPerInterval() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire(USER, false, START), "read " + i);
+        }
+
+        assertEquals(READ_INTERVAL, limiter.tryAcquire(USER, false, START));
+        assertEquals(READ_INTERVAL - 1, limiter.tryAcquire(USER, false, START + 1));
+        assertEquals(0, limiter.tryAcquire(USER, false, START + READ_INTERVAL));
+        assertEquals(READ_INTERVAL, limiter.tryAcquire(USER, false, START + READ_INTERVAL));
+    }
+
+    @Test
+    void tryAcquire_shouldRefillBurstAfterQuietPeriod() {
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(USER, false, START);
+        }
+        long refilled = START + 100 * READ_INTERVAL;
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire(USER, false, refilled), "read " + i);
+        }
+        assertTrue(limiter.tryAcquire(USER, false, refilled) > 0);
+    }
+
+    @Test
+    void tryAcquire_shouldKeepReadAndWriteBudgetsApart() {
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0, limiter.tryAcquire(USER, true, START), "write " + i);
+        }
+
+        assertEquals(WRITE_INTERVAL, limiter.tryAcquire(USER, true, START));
+        assertEquals(0, limiter.tryAcquire(USER, false, START));
+        assertEquals(0, limiter.tryAcquire(OTHER_USER, true, START));
+    }
+
+    @Test
+    void toRetryAfterSeconds_shouldRoundWaitUpToWholeSeconds() {
+        assertEquals(1, TokenBucketRateLimiter.toRetryAfterSeconds(0));
+        assertEquals(1, TokenBucketRateLimiter.toRetryAfterSeconds(READ_INTERVAL));
+        assertEquals(1, TokenBucketRateLimiter.toRetryAfterSeconds(TimeUnit.SECONDS.toNanos(1)));
+        assertEquals(2, TokenBucketRateLimiter.toRetryAfterSeconds(TimeUnit.SECONDS.toNanos(1) + 1));
+    }
+
+    @Test
+    void tryAcquire_shouldReportWaitOfSlowBudgetAsRetryAfter() {
+        TokenBucketRateLimiter slow = new TokenBucketRateLimiter(50, 100, 0.5, 1, IDLE_TIMEOUT);
+        assertEquals(0, slow.tryAcquire(USER, true, START));
+        long now = START + TimeUnit.MILLISECONDS.toNanos(500);
+
+        long wait = slow.tryAcquire(USER, true, now);
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1500), wait);
+        assertEquals(2, TokenBucketRateLimiter.toRetryAfterSeconds(wait));
+        assertTrue(slow.tryAcquire(USER, true, now + wait - 1) > 0);
+        assertEquals(0, slow.tryAcquire(USER, true, now + wait));
+    }
+
+    @Test
+    void evictIdle_shouldDropOnlyBucketsIdleLongerThanTimeout() {
+        limiter.tryAcquire(USER, false, START);
+        limiter.tryAcquire(OTHER_USER, true, START + IDLE_TIMEOUT.toNanos());
+        assertEquals(2, limiter.size());
+
+        limiter.evictIdle(START + IDLE_TIMEOUT.toNanos());
+        assertEquals(2, limiter.size());
+
+        limiter.evictIdle(START + READ_INTERVAL + IDLE_TIMEOUT.toNanos() + 1);
+        assertEquals(1, limiter.size());
+
+        limiter.evictIdle(START + WRITE_INTERVAL + 2 * IDLE_TIMEOUT.toNanos() + 1);
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void evictIdle_shouldKeepBucketWhoseWritesAreStillRefilling() {
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire(USER, true, START);
+        }
+        long writesRefilled = START + 20 * WRITE_INTERVAL;
+
+        limiter.evictIdle(writesRefilled + IDLE_TIMEOUT.toNanos() - 1);
+        assertEquals(1, limiter.size());
+
+        limiter.evictIdle(writesRefilled + IDLE_TIMEOUT.toNanos() + 1);
+        assertEquals(0, limiter.size());
+        assertEquals(0, limiter.tryAcquire(USER, true, writesRefilled + IDLE_TIMEOUT.toNanos() + 1));
+    }
+}
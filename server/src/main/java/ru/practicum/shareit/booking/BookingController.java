@@ -2,9 +2,13 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingDtoPage;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
@@ -15,6 +19,7 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingService;
 
     @PostMapping
@@ -39,21 +44,50 @@ public class BookingController {
         return bookingService.getById(userId, bookingId);
     }
 
+    /**
+     * Pages by {@code from}/{@code size}, or by keyset when a {@code cursor} is given; an empty cursor
+     * starts from the newest booking. The cursor for the next page is returned in the
+     * {@value #NEXT_CURSOR_HEADER} header and is absent on the last page.
+     */
     @GetMapping
-    public List<BookingDtoOutput> getAllByUser(@RequestHeader("X-Sharer-User-Id") long userId,
-                                               @RequestParam(defaultValue = "ALL") State state,
-                                               @RequestParam(defaultValue = "0") int from,
-                                               @RequestParam(defaultValue = "100") int size) {
+    public ResponseEntity<List<BookingDtoOutput>> getAllByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                               @RequestParam(defaultValue = "ALL") State state,
+                                                               @RequestParam(defaultValue = "0") int from,
+                                                               @RequestParam(defaultValue = "100") int size,
+                                                               @RequestParam(required = false) String cursor) {
         log.debug("Request GET to /bookings");
-        return bookingService.getAllByUser(userId, state, from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllByUser(userId, state, from, size));
+        }
+        return withNextCursor(bookingService.getPageByUser(userId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoOutput> getAllByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                                @RequestParam(defaultValue = "ALL") State state,
-                                                @RequestParam(defaultValue = "0") int from,
-                                                @RequestParam(defaultValue = "100") int size) {
+    public ResponseEntity<List<BookingDtoOutput>> getAllByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                                @RequestParam(defaultValue = "ALL") State state,
+                                                                @RequestParam(defaultValue = "0") int from,
+                                                                @RequestParam(defaultValue = "100") int size,
+                                                                @RequestParam(required = false) String cursor) {
         log.debug("Request GET to /bookings/owner");
-        return bookingService.getAllByOwner(ownerId,state, from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllByOwner(ownerId, state, from, size));
+        }
+        return withNextCursor(bookingService.getPageByOwner(ownerId, state, cursor, size));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId) {
+        log.debug("Request GET to /bookings/owner/export");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingService.exportByOwner(ownerId));
+    }
+
+    private static ResponseEntity<List<BookingDtoOutput>> withNextCursor(BookingDtoPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
@@ -17,4 +17,13 @@ public class BookingDtoOutput {
     private ItemDtoIdAndName item;
     private UserDtoIdAndName booker;
     private Status status;
+
+    /**
+     * Flat form for JPQL projections, see {@code BookingQueryRepositoryImpl}.
+     */
+    public BookingDtoOutput(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                            Long itemId, String itemName, Long bookerId, String bookerName) {
+        this(id, start, end, new ItemDtoIdAndName(itemId, itemName), new UserDtoIdAndName(bookerId, bookerName),
+                status);
+    }
 }
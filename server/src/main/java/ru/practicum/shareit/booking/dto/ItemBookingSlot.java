@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+/**
+ * Row of {@code BookingRepository.findLastAndNextBookings}: the single last or next approved booking of an item.
+ */
+public interface ItemBookingSlot {
+
+    String LAST = "LAST";
+    String NEXT = "NEXT";
+
+    Long getItemId();
+
+    Long getId();
+
+    Long getBookerId();
+
+    String getKind();
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.common.Cursor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A page of bookings of a booker or of an item owner in one state, newest start first. Pages by keyset
+ * after {@code after} when it is set, otherwise by {@code offset}.
+ */
+public record BookingQuery(Party party, long userId, State state, LocalDateTime now,
+                           Cursor.Position after, int offset, int limit) {
+
+    public enum Party {
+        BOOKER,
+        OWNER
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    List<BookingDtoOutput> findPage(BookingQuery query);
+}
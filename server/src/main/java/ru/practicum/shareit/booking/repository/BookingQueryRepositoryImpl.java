@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+
+import java.util.List;
+
+/**
+ * Builds every booker/owner and state combination from the same parts, so all of them share one plan shape:
+ * a party filter, a state filter and the {@code (start desc, id desc)} order, which is also the keyset.
+ * Rows are projected with item and booker names, so mapping them never touches a lazy association.
+ */
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    private static final String SELECT = "select new ru.practicum.shareit.booking.dto.BookingDtoOutput(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name) " +
+            "from Booking as b join b.item as i join b.booker as u ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDtoOutput> findPage(BookingQuery query) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        jpql.append(query.party() == BookingQuery.Party.OWNER
+                ? "where i.owner.id = :userId "
+                : "where u.id = :userId ");
+        jpql.append(switch (query.state()) {
+            case ALL -> "";
+            case CURRENT -> "and b.start < :now and b.end > :now ";
+            case PAST -> "and b.end < :now ";
+            case FUTURE -> "and b.start > :now ";
+            case WAITING, REJECTED -> "and b.status = :status ";
+            case UNSUPPORTED_STATUS -> throw new IllegalArgumentException("Unsupported state " + query.state());
+        });
+        if (query.after() != null) {
+            jpql.append("and (b.start < :afterStart or (b.start = :afterStart and b.id < :afterId)) ");
+        }
+        jpql.append("order by b.start desc, b.id desc");
+
+        TypedQuery<BookingDtoOutput> typed = entityManager.createQuery(jpql.toString(), BookingDtoOutput.class)
+                .setParameter("userId", query.userId());
+        switch (query.state()) {
+            case CURRENT, PAST, FUTURE -> typed.setParameter("now", query.now());
+            case WAITING -> typed.setParameter("status", Status.WAITING);
+            case REJECTED -> typed.setParameter("status", Status.REJECTED);
+            default -> {
+            }
+        }
+        if (query.after() != null) {
+            typed.setParameter("afterStart", query.after().time())
+                    .setParameter("afterId", query.after().id());
+        } else {
+            typed.setFirstResult(query.offset());
+        }
+        return typed.setMaxResults(query.limit()).getResultList();
+    }
+}
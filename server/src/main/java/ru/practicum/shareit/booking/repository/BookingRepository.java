@@ -1,56 +1,51 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.ItemBookingSlot;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.search.ItemBookingCount;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findBookingsByBooker_Id(long bookerId, Pageable pageable);
-
-    List<Booking> findBookingsByBooker_IdAndStartBeforeAndEndAfter(long bookerId,
-                                                                   LocalDateTime start,
-                                                                   LocalDateTime end,
-                                                                   Pageable pageable);
-
-    List<Booking> findBookingsByBooker_IdAndEndBefore(long bookerId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findBookingsByBooker_IdAndStartAfter(long bookerId, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findBookingsByBooker_IdAndStatus(long bookerId, Status status, Pageable pageable);
-
-    List<Booking> findBookingsByItem_Owner_Id(long ownerId, Pageable pageable);
-
-    List<Booking> findBookingsByItem_Owner_IdAndStartBeforeAndEndAfter(long ownerId,
-                                                                       LocalDateTime start,
-                                                                       LocalDateTime end,
-                                                                       Pageable pageable);
-
-    List<Booking> findBookingsByItem_Owner_IdAndEndBefore(long ownerId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findBookingsByItem_Owner_IdAndStartAfter(long ownerId, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findBookingsByItem_Owner_IdAndStatus(long ownerId, Status status, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
 
     List<Booking> findBookingsByBooker_IdAndItem_IdAndEndIsBefore(long bookerId, long itemId,
                                                                   LocalDateTime localDateTime);
 
-    Optional<Booking> findFirstByItem_IdAndStartBeforeOrderByEndDesc(long id, LocalDateTime localDateTime);
-
-    Optional<Booking> findFirstByItem_IdAndStartAfterOrderByEndDesc(long id, LocalDateTime localDateTime);
-
-    @Query(value = "select book from Booking as book where book.item.id in ?1 and book.status = 'APPROVED'" +
-            " and book.start <= current_timestamp order by book.end desc")
-    List<Booking> findLastBookings(Set<Long> itemsId);
-
-    @Query(value = "select book from Booking as book where book.item.id in ?1 and book.status = 'APPROVED'" +
-            " and book.start > current_timestamp order by book.end asc")
-    List<Booking> findNextBookings(Set<Long> itemsId);
+    /**
+     * Returns at most one {@code LAST} and one {@code NEXT} approved booking per item in a single round trip:
+     * bookings are split by whether they have started at {@code now} and ranked by end date within each half.
+     */
+    @Query(value = "select slot.item_id as \"itemId\", slot.id as \"id\", slot.booker_id as \"bookerId\", " +
+            "slot.kind as \"kind\" " +
+            "from (select b.item_id, b.id, b.booker_id, " +
+            "             case when b.start_date <= :now then 'LAST' else 'NEXT' end as kind, " +
+            "             row_number() over (" +
+            "                 partition by b.item_id, case when b.start_date <= :now then 0 else 1 end " +
+            "                 order by case when b.start_date <= :now then b.end_date end desc, " +
+            "                          case when b.start_date > :now then b.end_date end asc) as rn " +
+            "      from bookings b " +
+            "      where b.item_id in (:itemIds) and b.status = 'APPROVED') slot " +
+            "where slot.rn = 1", nativeQuery = true)
+    List<ItemBookingSlot> findLastAndNextBookings(@Param("itemIds") Collection<Long> itemIds,
+                                                  @Param("now") LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.item.id = ?1 and b.status in ?2")
+    List<BookingInterval> findIntervalsByItemId(long itemId, Collection<Status> statuses);
+
+    @Query("select new ru.practicum.shareit.item.search.ItemBookingCount(book.item.id, count(book)) " +
+            "from Booking as book group by book.item.id")
+    List<ItemBookingCount> countBookingsByItem();
+
+    @Query("select new ru.practicum.shareit.item.search.ItemBookingCount(book.item.id, count(book)) " +
+            "from Booking as book where book.item.id in ?1 group by book.item.id")
+    List<ItemBookingCount> countBookingsByItemIds(Collection<Long> itemIds);
 }
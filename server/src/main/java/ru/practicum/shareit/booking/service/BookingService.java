@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingDtoPage;
 
 import java.util.List;
 
@@ -16,4 +18,16 @@ public interface BookingService {
     List<BookingDtoOutput> getAllByUser(long userId, State state, int from, int size);
 
     List<BookingDtoOutput> getAllByOwner(long ownerId, State state, int from, int size);
+
+    /**
+     * Keyset page of the booker's bookings, newest start first; an empty cursor starts from the newest.
+     */
+    BookingDtoPage getPageByUser(long userId, State state, String cursor, int size);
+
+    BookingDtoPage getPageByOwner(long ownerId, State state, String cursor, int size);
+
+    /**
+     * Checks the owner up front and returns all bookings of their items as NDJSON, oldest first.
+     */
+    StreamingResponseBody exportByOwner(long ownerId);
 }
@@ -2,41 +2,65 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingDtoPage;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.Cursor;
+import ru.practicum.shareit.common.NdjsonExporter;
 import ru.practicum.shareit.exception.AccessException;
+import ru.practicum.shareit.exception.BookingOverlapException;
 import ru.practicum.shareit.exception.EmailException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ServerException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.ItemDtoIdAndName;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.service.ItemViewCache;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDtoIdAndName;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import org.springframework.transaction.annotation.Transactional;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final String EXPORT_BY_OWNER_SQL = "select b.id, b.start_date, b.end_date, b.status, " +
+            "i.id as item_id, i.name as item_name, u.id as booker_id, u.name as booker_name " +
+            "from bookings b " +
+            "join items i on i.id = b.item_id " +
+            "join users u on u.id = b.booker_id " +
+            "where i.owner_id = ? " +
+            "order by b.id";
+    /**
+     * PostgreSQL {@code exclusion_violation}, raised by {@code ex_bookings_item_period} from indexes-postgresql.sql.
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
 
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemViewCache itemViewCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final NdjsonExporter ndjsonExporter;
 
     @Override
     @Transactional
@@ -59,7 +83,10 @@ public class BookingServiceImpl implements BookingService {
         }
         booking.setStatus(Status.WAITING);
 
-        Booking newBooking = bookingRepository.save(booking);
+        Booking newBooking = saveChecked(booking);
+        itemSuggestIndex.bookingCreated(item.getId());
+        itemViewCache.invalidateBookings(item.getId());
+        itemAvailabilityIndex.bookingChanged(newBooking);
         return bookingMapper.toOutputDto(newBooking);
     }
 
@@ -89,7 +116,9 @@ public class BookingServiceImpl implements BookingService {
         }
         booking.setStatus(status);
 
-        bookingRepository.save(booking);
+        saveChecked(booking);
+        itemViewCache.invalidateBookings(booking.getItem().getId());
+        itemAvailabilityIndex.bookingChanged(booking);
         return bookingMapper.toOutputDto(booking);
     }
 
@@ -110,78 +139,93 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-@Override
-@Transactional(readOnly = true)
-public List<BookingDtoOutput> getAllByOwner(long ownerId, State state, int from, int size) {
-    if (!userRepository.existsById(ownerId)) {
-        throw new NotFoundException("User with this id is not found");
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDtoOutput> getAllByOwner(long ownerId, State state, int from, int size) {
+        return findAll(BookingQuery.Party.OWNER, ownerId, state, from, size);
     }
-    return sortByState(state, ownerId, "owner", from, size).stream().map(bookingMapper::toOutputDto)
-            .collect(Collectors.toList());
-}
 
     @Override
     @Transactional(readOnly = true)
     public List<BookingDtoOutput> getAllByUser(long userId, State state, int from, int size) {
+        return findAll(BookingQuery.Party.BOOKER, userId, state, from, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingDtoPage getPageByOwner(long ownerId, State state, String cursor, int size) {
+        return findPage(BookingQuery.Party.OWNER, ownerId, state, cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingDtoPage getPageByUser(long userId, State state, String cursor, int size) {
+        return findPage(BookingQuery.Party.BOOKER, userId, state, cursor, size);
+    }
+
+    private List<BookingDtoOutput> findAll(BookingQuery.Party party, long userId, State state, int from, int size) {
+        checkQuery(userId, state);
+        return bookingRepository.findPage(new BookingQuery(party, userId, state, LocalDateTime.now(), null,
+                from / size * size, size));
+    }
+
+    private BookingDtoPage findPage(BookingQuery.Party party, long userId, State state, String cursor, int size) {
+        Cursor.Position after = Cursor.decodePosition(cursor);
+        checkQuery(userId, state);
+        List<BookingDtoOutput> bookings = bookingRepository.findPage(new BookingQuery(party, userId, state,
+                LocalDateTime.now(), after, 0, size));
+        String nextCursor = bookings.size() < size ? null
+                : Cursor.encode(bookings.getLast().getStart(), bookings.getLast().getId());
+        return new BookingDtoPage(bookings, nextCursor);
+    }
+
+    private void checkQuery(long userId, State state) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("User with this id is not found");
         }
-        return sortByState(state, userId, "user", from, size).stream().map(bookingMapper::toOutputDto)
-                .collect(Collectors.toList());
+        if (state == State.UNSUPPORTED_STATUS) {
+            throw new NotFoundException("Nonexistent state");
+        }
     }
 
-    private List<Booking> sortByState(State state, long id, String person, int from, int size) {
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
-        List<Booking> bookings;
-        if (person.equals("owner")) {
-            bookings = switch (state) {
-                case ALL -> bookingRepository.findBookingsByItem_Owner_Id(id, pageable);
-                case CURRENT -> bookingRepository.findBookingsByItem_Owner_IdAndStartBeforeAndEndAfter(
-                        id,
-                        LocalDateTime.now(),
-                        LocalDateTime.now(),
-                        pageable);
-                case PAST -> bookingRepository.findBookingsByItem_Owner_IdAndEndBefore(
-                        id,
-                        LocalDateTime.now(),
-                        pageable);
-                case FUTURE -> bookingRepository.findBookingsByItem_Owner_IdAndStartAfter(
-                        id,
-                        LocalDateTime.now(),
-                        pageable);
-                case WAITING -> bookingRepository.findBookingsByItem_Owner_IdAndStatus(id,
-                        Status.WAITING,
-                        pageable);
-                case REJECTED -> bookingRepository.findBookingsByItem_Owner_IdAndStatus(id,
-                        Status.REJECTED,
-                        pageable);
-                default -> throw new NotFoundException("Nonexistent state");
-            };
-        } else {
-            bookings = switch (state) {
-                case ALL -> bookingRepository.findBookingsByBooker_Id(id, pageable);
-                case CURRENT -> bookingRepository.findBookingsByBooker_IdAndStartBeforeAndEndAfter(
-                        id,
-                        LocalDateTime.now(),
-                        LocalDateTime.now(),
-                        pageable);
-                case PAST -> bookingRepository.findBookingsByBooker_IdAndEndBefore(
-                        id,
-                        LocalDateTime.now(),
-                        pageable);
-                case FUTURE -> bookingRepository.findBookingsByBooker_IdAndStartAfter(
-                        id,
-                        LocalDateTime.now(),
-                        pageable);
-                case WAITING -> bookingRepository.findBookingsByBooker_IdAndStatus(id,
-                        Status.WAITING,
-                        pageable);
-                case REJECTED -> bookingRepository.findBookingsByBooker_IdAndStatus(id,
-                        Status.REJECTED,
-                        pageable);
-                default -> throw new NotFoundException("Nonexistent state");
-            };
+    @Override
+    @Transactional(readOnly = true)
+    public StreamingResponseBody exportByOwner(long ownerId) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new NotFoundException("User with this id is not found");
         }
-        return bookings;
+        return ndjsonExporter.export(EXPORT_BY_OWNER_SQL, (rs, rowNum) -> new BookingDtoOutput(
+                rs.getLong("id"),
+                rs.getObject("start_date", LocalDateTime.class),
+                rs.getObject("end_date", LocalDateTime.class),
+                new ItemDtoIdAndName(rs.getLong("item_id"), rs.getString("item_name")),
+                new UserDtoIdAndName(rs.getLong("booker_id"), rs.getString("booker_name")),
+                Status.valueOf(rs.getString("status"))), ownerId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Flushes at once so that an overlap with another active booking of the item surfaces here, as a 409,
+     * rather than at commit. The check itself is the database's exclusion constraint, so there is no
+     * check-then-insert race and no lock beyond the constraint's index.
+     */
+    private Booking saveChecked(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlap(e)) {
+                throw new BookingOverlapException("Item is already booked for this time");
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isOverlap(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.common;
+
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the id of the last row a client has seen, or its time (creation, start) and id
+ * for newest-first pages. Clients must not parse it, so the encoding can change without breaking them.
+ */
+public final class Cursor {
+    private static final String PREFIX = "id:";
+    private static final String TIME_PREFIX = "at:";
+    private static final String SEPARATOR = "/";
+
+    private Cursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String encode(LocalDateTime lastTime, long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((TIME_PREFIX + lastTime + SEPARATOR + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the last seen id, or 0 for an empty cursor that starts from the beginning.
+     */
+    public static long decode(String cursor) {
+        if (cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Returns the last seen row of a newest-first page, or {@code null} for an empty cursor.
+     */
+    public static Position decodePosition(String cursor) {
+        if (cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            if (!value.startsWith(TIME_PREFIX) || separator < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new Position(LocalDateTime.parse(value.substring(TIME_PREFIX.length(), separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public record Position(LocalDateTime time, long id) {
+    }
+}
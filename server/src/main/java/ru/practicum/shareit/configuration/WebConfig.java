@@ -1,19 +1,37 @@
 package ru.practicum.shareit.configuration;
 
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import ru.practicum.shareit.common.StateMapper;
 
+import java.util.List;
+
 @Configuration
 @RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
     private final StateMapper stateMapper;
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
 
     @Override
     public void addFormatters(FormatterRegistry registry) {
         registry.addConverter(stateMapper);
     }
+
+    /**
+     * Lets the gateway exchange application/x-jackson-smile instead of JSON. The converter is
+     * appended after the JSON one, so requests without an explicit Smile Accept header still get
+     * JSON, and it is built from Boot's mapper builder so dates serialize the same way.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(new SmileFactory()).build()));
+    }
 }
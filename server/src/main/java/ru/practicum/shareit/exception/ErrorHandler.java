@@ -22,6 +22,24 @@ public class ErrorHandler {
                 .body(errorResponse);
     }
 
+    @ExceptionHandler(BookingOverlapException.class)
+    public ResponseEntity<ErrorResponse> handleBookingOverlap(BookingOverlapException e) {
+        log.info("409 {}", e.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse("error", e.getMessage(), List.of());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequest(BadRequestException e) {
+        log.info("400 {}", e.getMessage());
+        ErrorResponse errorResponse = new ErrorResponse("error", e.getMessage(), List.of());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFound(NotFoundException e) {
         ErrorResponse errorResponse = new ErrorResponse("error", e.getMessage(), List.of());
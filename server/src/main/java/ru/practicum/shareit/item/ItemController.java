@@ -1,26 +1,62 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.comments.CommentDto;
+import ru.practicum.shareit.item.comments.CommentDtoPage;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequest;
+import ru.practicum.shareit.item.dto.ItemBulkResult;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBookingAndComments;
 import ru.practicum.shareit.item.dto.ItemDtoInput;
+import ru.practicum.shareit.item.dto.ItemDtoPage;
+import ru.practicum.shareit.item.dto.ItemFreeSlot;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Pages by {@code from}/{@code size}, or by keyset when a {@code cursor} is given; an empty
+     * cursor starts from the first item. The cursor for the next page is returned in the
+     * {@value #NEXT_CURSOR_HEADER} header and is absent on the last page.
+     */
     @GetMapping
-    public List<ItemDtoBookingAndComments> getAllBy(@RequestHeader("X-Sharer-User-Id") long sharerId,
-                                                    @RequestParam(defaultValue = "0") int from,
-                                                    @RequestParam(defaultValue = "100") int size) {
-        return itemService.getAll(sharerId, from, size);
+    public ResponseEntity<List<ItemDtoBookingAndComments>> getAllBy(@RequestHeader("X-Sharer-User-Id") long sharerId,
+                                                                    @RequestParam(defaultValue = "0") int from,
+                                                                    @RequestParam(defaultValue = "100") int size,
+                                                                    @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(itemService.getAll(sharerId, from, size));
+        }
+        ItemDtoPage page = itemService.getAllByCursor(sharerId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader("X-Sharer-User-Id") long sharerId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(itemService.export(sharerId));
     }
 
     @GetMapping("/{itemId}")
@@ -29,6 +65,39 @@ public class ItemController {
         return itemService.getById(sharerId, itemId);
     }
 
+    /**
+     * Item comments newest first; the cursor for the next page is returned in the {@value #NEXT_CURSOR_HEADER}
+     * header, as for {@link #getAllBy}.
+     */
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable long itemId,
+                                                        @RequestParam(defaultValue = "") String cursor,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        CommentDtoPage page = itemService.getComments(itemId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getComments());
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<ItemFreeSlot> getAvailability(@PathVariable long itemId,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime from,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
+    /**
+     * Ids of the requested items that are free for the whole period, for pages showing many items at once.
+     */
+    @PostMapping("/availability")
+    public List<Long> getFreeItems(@RequestBody ItemAvailabilityRequest request) {
+        return itemService.getFreeItems(request);
+    }
+
     @GetMapping("/search")
     public List<ItemDto> getByText(@RequestParam String text,
                                    @RequestParam(defaultValue = "0") int from,
@@ -40,12 +109,36 @@ public class ItemController {
         }
     }
 
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank()) {
+            return List.of();
+        }
+        return itemService.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
     @PostMapping
     public ItemDto create(@RequestHeader("X-Sharer-User-Id") long sharerId,
                           @RequestBody ItemDtoInput itemDto) {
         return itemService.create(sharerId, itemDto);
     }
 
+    /**
+     * Imports many items of one owner. Invalid rows are reported by index and do not stop the others.
+     */
+    @PostMapping("/bulk")
+    public ItemBulkResult createAll(@RequestHeader("X-Sharer-User-Id") long sharerId,
+                                    @RequestBody List<ItemDtoInput> items) {
+        return itemService.createAll(sharerId, items.iterator());
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemBulkResult createAllFromStream(@RequestHeader("X-Sharer-User-Id") long sharerId,
+                                              InputStream body) {
+        return itemService.createAll(sharerId, new NdjsonItemIterator(objectMapper, body));
+    }
+
     @PostMapping("{itemId}/comment")
     public CommentDto createComment(@RequestHeader("X-Sharer-User-Id") long userId,
                                     @PathVariable long itemId,
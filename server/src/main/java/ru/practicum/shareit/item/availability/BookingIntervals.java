@@ -0,0 +1,166 @@
+package ru.practicum.shareit.item.availability;
+
+import java.util.Arrays;
+
+/**
+ * Immutable booking intervals of one item as parallel primitive arrays sorted by start. Times are epoch
+ * microseconds and intervals are half-open, {@code [start, end)}. {@code maxEnds[i]} is the latest end among
+ * the first {@code i + 1} intervals; it never decreases, so the first interval that can reach into a window
+ * is found by binary search and a lookup only touches the intervals that overlap the window.
+ */
+final class BookingIntervals {
+    static final BookingIntervals EMPTY = new BookingIntervals(new long[0], new long[0], new long[0]);
+
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private BookingIntervals(long[] ids, long[] starts, long[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ends.length];
+        long maxEnd = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            maxEnd = Math.max(maxEnd, ends[i]);
+            maxEnds[i] = maxEnd;
+        }
+    }
+
+    /**
+     * Builds from unsorted parallel arrays, which are taken over.
+     */
+    static BookingIntervals of(long[] ids, long[] starts, long[] ends) {
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+        long[] sortedIds = new long[ids.length];
+        long[] sortedStarts = new long[ids.length];
+        long[] sortedEnds = new long[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedIds[i] = ids[order[i]];
+            sortedStarts[i] = starts[order[i]];
+            sortedEnds[i] = ends[order[i]];
+        }
+        return new BookingIntervals(sortedIds, sortedStarts, sortedEnds);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Adds the booking, replacing an interval with the same id.
+     */
+    BookingIntervals with(long id, long start, long end) {
+        BookingIntervals base = without(id);
+        int at = base.insertionPoint(start);
+        int size = base.size();
+        long[] newIds = new long[size + 1];
+        long[] newStarts = new long[size + 1];
+        long[] newEnds = new long[size + 1];
+        copyAround(base.ids, newIds, at, id);
+        copyAround(base.starts, newStarts, at, start);
+        copyAround(base.ends, newEnds, at, end);
+        return new BookingIntervals(newIds, newStarts, newEnds);
+    }
+
+    BookingIntervals without(long id) {
+        int index = -1;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            return this;
+        }
+        return new BookingIntervals(remove(ids, index), remove(starts, index), remove(ends, index));
+    }
+
+    /**
+     * Free parts of {@code [from, to)} as flattened {@code start, end} pairs, in order.
+     */
+    long[] freeSlots(long from, long to) {
+        long[] slots = new long[8];
+        int count = 0;
+        long cursor = from;
+        for (int i = firstReaching(from); i < starts.length && starts[i] < to && cursor < to; i++) {
+            if (ends[i] <= cursor) {
+                continue;
+            }
+            if (starts[i] > cursor) {
+                if (count + 2 > slots.length) {
+                    slots = Arrays.copyOf(slots, slots.length * 2);
+                }
+                slots[count++] = cursor;
+                slots[count++] = starts[i];
+            }
+            cursor = ends[i];
+        }
+        if (cursor < to) {
+            if (count + 2 > slots.length) {
+                slots = Arrays.copyOf(slots, slots.length + 2);
+            }
+            slots[count++] = cursor;
+            slots[count++] = to;
+        }
+        return Arrays.copyOf(slots, count);
+    }
+
+    /**
+     * Whether no interval overlaps {@code [from, to)}.
+     */
+    boolean isFree(long from, long to) {
+        int i = firstReaching(from);
+        return i == starts.length || starts[i] >= to;
+    }
+
+    /**
+     * Index of the first interval whose prefix-max end is after {@code time}: no earlier interval reaches it.
+     */
+    private int firstReaching(long time) {
+        int low = 0;
+        int high = maxEnds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxEnds[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int insertionPoint(long start) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= start) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void copyAround(long[] source, long[] target, int at, long value) {
+        System.arraycopy(source, 0, target, 0, at);
+        target[at] = value;
+        System.arraycopy(source, at, target, at + 1, source.length - at);
+    }
+
+    private static long[] remove(long[] source, int index) {
+        long[] target = new long[source.length - 1];
+        System.arraycopy(source, 0, target, 0, index);
+        System.arraycopy(source, index + 1, target, index, source.length - index - 1);
+        return target;
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.item.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemFreeSlot;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static ru.practicum.shareit.common.TransactionCallbacks.afterCommit;
+
+/**
+ * Waiting and approved bookings per item, for availability lookups. An item's intervals are loaded on first
+ * use and dropped after {@code shareit.availability.idle-ttl} without lookups, or when the total number of
+ * intervals held exceeds {@code shareit.availability.max-intervals}.
+ *
+ * <p>Booking writes are applied after commit, and only to items already loaded. A load holds the item's entry
+ * until it finishes, so a write committed while loading is applied on top of the loaded intervals.
+ */
+@Component
+public class ItemAvailabilityIndex implements MeterBinder {
+    static final Set<Status> ACTIVE = EnumSet.of(Status.WAITING, Status.APPROVED);
+    private static final long MICROS_PER_SECOND = 1_000_000;
+    private static final int NANOS_PER_MICRO = 1_000;
+
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final Cache<Long, BookingIntervals> cache;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${shareit.availability.enabled:true}") boolean enabled,
+                                 @Value("${shareit.availability.max-intervals:1000000}") long maxIntervals,
+                                 @Value("${shareit.availability.idle-ttl:10m}") Duration idleTtl) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxIntervals)
+                .weigher((Long itemId, BookingIntervals intervals) -> intervals.size() + 1)
+                .expireAfterAccess(idleTtl)
+                .build();
+    }
+
+    /**
+     * Free parts of {@code [from, to)} for the item, in order.
+     */
+    public List<ItemFreeSlot> freeSlots(long itemId, LocalDateTime from, LocalDateTime to) {
+        long[] slots = intervals(itemId).freeSlots(toMicros(from), toMicros(to));
+        List<ItemFreeSlot> result = new ArrayList<>(slots.length / 2);
+        for (int i = 0; i < slots.length; i += 2) {
+            result.add(new ItemFreeSlot(fromMicros(slots[i]), fromMicros(slots[i + 1])));
+        }
+        return result;
+    }
+
+    /**
+     * Whether {@code [from, to)} is free, for those of the items whose intervals are loaded; the others are
+     * left out rather than loaded one by one.
+     */
+    public Map<Long, Boolean> isFreeIfLoaded(Collection<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        if (!enabled) {
+            return Map.of();
+        }
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        Map<Long, Boolean> result = new HashMap<>();
+        for (Long itemId : itemIds) {
+            BookingIntervals intervals = cache.getIfPresent(itemId);
+            if (intervals != null) {
+                result.put(itemId, intervals.isFree(fromMicros, toMicros));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Applies the booking's current status: waiting and approved bookings occupy their period, others free it.
+     */
+    public void bookingChanged(Booking booking) {
+        long itemId = booking.getItem().getId();
+        long id = booking.getId();
+        long start = toMicros(booking.getStart());
+        long end = toMicros(booking.getEnd());
+        boolean active = ACTIVE.contains(booking.getStatus());
+        afterCommit(() -> cache.asMap().computeIfPresent(itemId, (key, intervals) -> active
+                ? intervals.with(id, start, end)
+                : intervals.without(id)));
+    }
+
+    public void remove(long itemId) {
+        afterCommit(() -> cache.invalidate(itemId));
+    }
+
+    public void clear() {
+        afterCommit(cache::invalidateAll);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("items.availability.items", cache, Cache::estimatedSize)
+                .register(registry);
+    }
+
+    private BookingIntervals intervals(long itemId) {
+        return enabled ? cache.get(itemId, this::load) : load(itemId);
+    }
+
+    private BookingIntervals load(long itemId) {
+        List<BookingInterval> bookings = bookingRepository.findIntervalsByItemId(itemId, ACTIVE);
+        if (bookings.isEmpty()) {
+            return BookingIntervals.EMPTY;
+        }
+        long[] ids = new long[bookings.size()];
+        long[] starts = new long[bookings.size()];
+        long[] ends = new long[bookings.size()];
+        for (int i = 0; i < ids.length; i++) {
+            BookingInterval booking = bookings.get(i);
+            ids[i] = booking.getId();
+            starts[i] = toMicros(booking.getStart());
+            ends[i] = toMicros(booking.getEnd());
+        }
+        return BookingIntervals.of(ids, starts, ends);
+    }
+
+    /**
+     * Booking times carry no zone; UTC only fixes a scale to compare them on.
+     */
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + time.getNano() / NANOS_PER_MICRO;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * NANOS_PER_MICRO, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.comments;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CommentDtoPage {
+    private List<CommentDto> comments;
+    private String nextCursor;
+}
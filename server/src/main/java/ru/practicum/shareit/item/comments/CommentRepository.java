@@ -1,8 +1,13 @@
 package ru.practicum.shareit.item.comments;
 
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -10,4 +15,39 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItem_Id(long itemId);
 
     List<Comment> findByItem_IdIn(Set<Long> itemsId);
+
+    /**
+     * The {@code limit} newest comments of every given item together with its comment count, in one statement.
+     * Rows come ordered by item, then newest first.
+     */
+    @Query(value = "select i.id as \"itemId\", i.comment_count as \"commentCount\", c.id as \"id\", " +
+            "c.text as \"text\", c.author_name as \"authorName\", c.created as \"created\" " +
+            "from items i " +
+            "left join (select c.id, c.item_id, c.text, u.name as author_name, c.created, " +
+            "                  row_number() over (partition by c.item_id " +
+            "                                     order by c.created desc, c.id desc) as rn " +
+            "           from comments c " +
+            "           join users u on u.id = c.author_id " +
+            "           where c.item_id in (:itemIds)) c " +
+            "       on c.item_id = i.id and c.rn <= :limit " +
+            "where i.id in (:itemIds) " +
+            "order by i.id, c.created desc, c.id desc", nativeQuery = true)
+    List<ItemCommentRow> findNewestByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    @Query("select new ru.practicum.shareit.item.comments.CommentDto(c.id, c.text, a.name, c.created) " +
+            "from Comment as c join c.author as a " +
+            "where c.item.id = ?1 " +
+            "order by c.created desc, c.id desc")
+    List<CommentDto> findPageByItemId(long itemId, Pageable pageable);
+
+    /**
+     * Keyset page: comments strictly older than the last one seen, in the order of {@link #findPageByItemId}.
+     */
+    @Query("select new ru.practicum.shareit.item.comments.CommentDto(c.id, c.text, a.name, c.created) " +
+            "from Comment as c join c.author as a " +
+            "where c.item.id = :itemId " +
+            "and (c.created < :created or (c.created = :created and c.id < :id)) " +
+            "order by c.created desc, c.id desc")
+    List<CommentDto> findPageByItemIdBefore(@Param("itemId") long itemId, @Param("created") LocalDateTime created,
+                                            @Param("id") long id, Pageable pageable);
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.comments;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of {@link CommentRepository#findNewestByItemIds}: one per shown comment, or a single row with a
+ * {@code null} id for an item without comments. {@link #getCommentCount()} is the item's total either way.
+ */
+public interface ItemCommentRow {
+
+    Long getItemId();
+
+    Long getCommentCount();
+
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+}
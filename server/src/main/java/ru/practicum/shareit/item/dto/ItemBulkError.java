@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A rejected row of a bulk import; {@code index} is the zero-based position of the row in the request.
+ */
+@Data
+@AllArgsConstructor
+public class ItemBulkError {
+    private long index;
+    private String error;
+}
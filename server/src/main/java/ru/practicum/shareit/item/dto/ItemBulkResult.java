@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ItemBulkResult {
+    private int created;
+    private List<Long> ids;
+    private List<ItemBulkError> errors;
+}
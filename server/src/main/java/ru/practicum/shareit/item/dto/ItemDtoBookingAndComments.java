@@ -17,4 +17,5 @@ public class ItemDtoBookingAndComments {
     private BookingIdAndBookerId lastBooking;
     private BookingIdAndBookerId nextBooking;
     private List<CommentDto> comments;
+    private Long commentCount;
 }
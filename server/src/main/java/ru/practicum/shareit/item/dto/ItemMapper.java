@@ -16,7 +16,11 @@ public interface ItemMapper {
     ItemDtoBookingAndComments toDtoWithBookingAndComments(Item item,
                                                           BookingIdAndBookerId lastBooking,
                                                           BookingIdAndBookerId nextBooking,
-                                                          List<CommentDto> comments);
+                                                          List<CommentDto> comments,
+                                                          Long commentCount);
+
+    ItemDtoBookingAndComments toDtoWithBookingAndComments(ItemView item, List<CommentDto> comments,
+                                                          Long commentCount);
 
     List<ItemDtoRequests> toDtoListForRequest(List<Item> items);
 
@@ -40,10 +40,23 @@ public class ItemMapperImpl implements ItemMapper {
     public ItemDtoBookingAndComments toDtoWithBookingAndComments(Item item,
                                                                  BookingIdAndBookerId lastBooking,
                                                                  BookingIdAndBookerId nextBooking,
-                                                                 List<CommentDto> comments) {
+                                                                 List<CommentDto> comments,
+                                                                 Long commentCount) {
         return new ItemDtoBookingAndComments(item.getId(), item.getName(),
                 item.getDescription(), item.getAvailable(),
-                lastBooking, nextBooking, comments);
+                lastBooking, nextBooking, comments, commentCount);
+    }
+
+    @Override
+    public ItemDtoBookingAndComments toDtoWithBookingAndComments(ItemView item, List<CommentDto> comments,
+                                                                 Long commentCount) {
+        BookingIdAndBookerId lastBooking = item.getLastBookingId() == null ? null
+                : new BookingIdAndBookerId(item.getLastBookingId(), item.getLastBookerId());
+        BookingIdAndBookerId nextBooking = item.getNextBookingId() == null ? null
+                : new BookingIdAndBookerId(item.getNextBookingId(), item.getNextBookerId());
+        return new ItemDtoBookingAndComments(item.getId(), item.getName(),
+                item.getDescription(), item.getAvailable(),
+                lastBooking, nextBooking, comments, commentCount);
     }
 
     @Override
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of {@code ItemRepository.findItemView}. A missing row means the requesting user does not exist,
+ * a row with a {@code null} id means the item does not exist. Booking columns are filled for the owner only;
+ * {@link #getValidUntil()} is then the start of the next booking to begin, when last/next shift.
+ */
+public interface ItemView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getOwnerId();
+
+    Long getLastBookingId();
+
+    Long getLastBookerId();
+
+    Long getNextBookingId();
+
+    Long getNextBookerId();
+
+    LocalDateTime getValidUntil();
+}
@@ -2,10 +2,17 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchDocument;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
@@ -15,8 +22,85 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "and i.available = true")
     List<Item> findByText(String text, Pageable pageable);
 
+    /**
+     * PostgreSQL-only search served by the trigram indexes from indexes-postgresql.sql, one per field, which
+     * the planner combines with a BitmapOr; the {@code like} expressions must stay identical to the indexed
+     * ones. Name and description are matched separately, as in {@link #findByText} and the in-memory index, so
+     * a query never matches across the two. Items matching whole words rank first, then by closeness of the
+     * name to the query; every match is ranked before the page is cut, so a common word costs a sort of all
+     * its matches.
+     */
+    @Query(value = "select * from items i " +
+            "where i.is_available = true " +
+            "and (lower(i.name) like concat('%', lower(:text), '%') " +
+            "or lower(i.description) like concat('%', lower(:text), '%')) " +
+            "order by ts_rank(to_tsvector('simple', i.name || ' ' || i.description), " +
+            "plainto_tsquery('simple', :text)) desc, " +
+            "word_similarity(lower(:text), lower(i.name)) desc, i.id",
+            nativeQuery = true)
+    List<Item> searchIndexed(@Param("text") String text, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.search.ItemSearchDocument(i.id, i.name, i.description, i.available) " +
+            "from Item as i " +
+            "where i.id > ?1 " +
+            "order by i.id")
+    List<ItemSearchDocument> findSearchDocuments(long afterId, Pageable pageable);
+
+    /**
+     * Item view for {@code GET /items/{id}} in one statement: the user lookup, the item and, for its owner,
+     * the last and next bookings. These keep the rules of the single-item view, which differ from the owner's
+     * item list: bookings of any status count, and of those started before and after {@code now} the one that
+     * ends latest is taken.
+     */
+    @Query(value = "select i.id as \"id\", i.name as \"name\", i.description as \"description\", " +
+            "i.is_available as \"available\", i.owner_id as \"ownerId\", " +
+            "max(case when s.kind = 'LAST' then s.id end) as \"lastBookingId\", " +
+            "max(case when s.kind = 'LAST' then s.booker_id end) as \"lastBookerId\", " +
+            "max(case when s.kind = 'NEXT' then s.id end) as \"nextBookingId\", " +
+            "max(case when s.kind = 'NEXT' then s.booker_id end) as \"nextBookerId\", " +
+            "min(s.next_start) as \"validUntil\" " +
+            "from users u " +
+            "left join items i on i.id = :id " +
+            "left join (select b.id, b.booker_id, " +
+            "                  case when b.start_date < :now then 'LAST' else 'NEXT' end as kind, " +
+            "                  row_number() over (" +
+            "                      partition by case when b.start_date < :now then 0 else 1 end " +
+            "                      order by b.end_date desc) as rn, " +
+            "                  min(case when b.start_date > :now then b.start_date end) over () as next_start " +
+            "           from bookings b " +
+            "           where b.item_id = :id and b.start_date <> :now) s " +
+            "       on s.rn = 1 and i.owner_id = u.id " +
+            "where u.id = :userId " +
+            "group by i.id, i.name, i.description, i.is_available, i.owner_id", nativeQuery = true)
+    Optional<ItemView> findItemView(@Param("userId") long userId, @Param("id") long id,
+                                    @Param("now") LocalDateTime now);
+
+    /**
+     * Keeps {@code items.comment_count} in step with the comments table without counting them on read.
+     */
+    @Modifying
+    @Query(value = "update items set comment_count = comment_count + 1 where id = :id", nativeQuery = true)
+    void incrementCommentCount(@Param("id") long id);
+
+    /**
+     * Of the given items, those available and without a waiting or approved booking overlapping
+     * {@code [from, to)}, as one anti-join against bookings.
+     */
+    @Query(value = "select i.id from items i " +
+            "where i.id in (:ids) and i.is_available = true " +
+            "and not exists (select 1 from bookings b " +
+            "                where b.item_id = i.id and b.status in ('WAITING', 'APPROVED') " +
+            "                and b.start_date < :to and b.end_date > :from)", nativeQuery = true)
+    List<Long> findFreeItemIds(@Param("ids") Collection<Long> ids, @Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to);
+
+    @Query("select i.id from Item as i where i.id in ?1 and i.available = true")
+    List<Long> findAvailableIds(Collection<Long> ids);
+
     List<Item> findAllByOwner_Id_OrderByIdAsc(long ownerId, Pageable pageable);
 
+    List<Item> findAllByOwner_IdAndIdGreaterThanOrderByIdAsc(long ownerId, long afterId, Pageable pageable);
+
     List<Item> findByRequest_IdIn(List<Long> requestsId);
 
     List<Item> findByRequest_IdOrderById(long requestId);
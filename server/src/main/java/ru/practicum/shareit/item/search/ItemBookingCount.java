@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemBookingCount {
+    private final Long itemId;
+    private final Long bookings;
+}
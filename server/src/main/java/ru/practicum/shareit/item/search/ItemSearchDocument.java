@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemSearchDocument {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Boolean available;
+}
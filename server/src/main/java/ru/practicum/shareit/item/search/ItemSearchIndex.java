@@ -0,0 +1,301 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import static ru.practicum.shareit.common.TransactionCallbacks.afterCommit;
+
+/**
+ * In-memory trigram index over item name and description, an optional replacement for the
+ * database {@code like} search. Candidates come from intersecting the posting lists of the
+ * query's trigrams and are then verified with a substring check, so results are the same as a
+ * case-insensitive {@code like '%text%'} over available items, ordered by id.
+ *
+ * <p>Built once the application is ready and kept in sync by {@code ItemServiceImpl}; changes are
+ * applied after the surrounding transaction commits. Changes applied while the index is being built win over
+ * the rows the build read before them, see {@link RebuildWrites}.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex implements MeterBinder {
+    private static final int GRAM = 3;
+    private static final int REBUILD_BATCH = 10_000;
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, LongPostings> postings = new HashMap<>();
+    private final LongPostings allIds = new LongPostings();
+    private volatile boolean ready;
+    /**
+     * Writes applied while {@link #rebuild()} runs; {@code null} otherwise.
+     */
+    private RebuildWrites writtenDuringRebuild;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.in-memory:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        write(() -> writtenDuringRebuild = new RebuildWrites());
+        long afterId = 0;
+        int count = 0;
+        List<ItemSearchDocument> batch;
+        do {
+            batch = itemRepository.findSearchDocuments(afterId, PageRequest.of(0, REBUILD_BATCH));
+            lock.writeLock().lock();
+            try {
+                for (ItemSearchDocument item : batch) {
+                    if (!writtenDuringRebuild.isStale(item.getId())) {
+                        index(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            count += batch.size();
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH);
+        write(() -> writtenDuringRebuild = null);
+        ready = true;
+        log.info("Item search index built: {} items, {} trigrams", count, postings.size());
+    }
+
+    public void put(Item item) {
+        if (!enabled) {
+            return;
+        }
+        long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        Boolean available = item.getAvailable();
+        afterCommit(() -> write(() -> {
+            recordRebuildWrite(id);
+            index(id, name, description, available);
+        }));
+    }
+
+    /**
+     * Same as {@link #put} for every item, with a single after-commit update for all of them.
+     */
+    public void putAll(Collection<Item> items) {
+        if (!enabled || items.isEmpty()) {
+            return;
+        }
+        List<ItemSearchDocument> documents = snapshot(items);
+        afterCommit(() -> write(() -> {
+            for (ItemSearchDocument document : documents) {
+                recordRebuildWrite(document.getId());
+                index(document.getId(), document.getName(), document.getDescription(), document.getAvailable());
+            }
+        }));
+    }
+
+    public void remove(long id) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> write(() -> {
+            recordRebuildWrite(id);
+            unindex(id);
+        }));
+    }
+
+    public void clear() {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> write(() -> {
+            if (writtenDuringRebuild != null) {
+                writtenDuringRebuild.cleared();
+            }
+            documents.clear();
+            postings.clear();
+            allIds.clear();
+        }));
+    }
+
+    /**
+     * Returns ids of available items containing {@code text}, skipping {@code offset} matches.
+     */
+    public List<Long> search(String text, long offset, int size) {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Long> result = new ArrayList<>(size);
+        long skipped = 0;
+        lock.readLock().lock();
+        try {
+            List<LongPostings> lists = postingsFor(query);
+            if (lists == null) {
+                return result;
+            }
+            LongPostings smallest = lists.get(0);
+            for (int i = 0; i < smallest.size() && result.size() < size; i++) {
+                long id = smallest.get(i);
+                if (!containsInAll(lists, id) || !documents.get(id).matches(query)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("items.search.index.documents", this, index -> index.read(() -> index.documents.size()))
+                .register(registry);
+        Gauge.builder("items.search.index.terms", this, index -> index.read(() -> index.postings.size()))
+                .register(registry);
+        Gauge.builder("items.search.index.postings.bytes", this, index -> index.read(index::postingBytes))
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Posting lists to intersect, smallest first; all ids for queries shorter than a trigram and
+     * {@code null} when some trigram has no postings at all.
+     */
+    private List<LongPostings> postingsFor(String query) {
+        if (query.length() < GRAM) {
+            return List.of(allIds);
+        }
+        List<LongPostings> lists = new ArrayList<>();
+        for (long gram : grams(query)) {
+            LongPostings list = postings.get(gram);
+            if (list == null) {
+                return null;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(LongPostings::size));
+        return lists;
+    }
+
+    private static boolean containsInAll(List<LongPostings> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void index(long id, String name, String description, Boolean available) {
+        unindex(id);
+        Document document = new Document(name.toLowerCase(Locale.ROOT) + FIELD_SEPARATOR
+                + description.toLowerCase(Locale.ROOT), Boolean.TRUE.equals(available));
+        documents.put(id, document);
+        allIds.add(id);
+        for (long gram : grams(document.text())) {
+            postings.computeIfAbsent(gram, key -> new LongPostings()).add(id);
+        }
+    }
+
+    private void unindex(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        allIds.remove(id);
+        for (long gram : grams(document.text())) {
+            LongPostings list = postings.get(gram);
+            if (list != null && list.remove(id) && list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    static List<ItemSearchDocument> snapshot(Collection<Item> items) {
+        List<ItemSearchDocument> documents = new ArrayList<>(items.size());
+        for (Item item : items) {
+            documents.add(new ItemSearchDocument(item.getId(), item.getName(), item.getDescription(),
+                    item.getAvailable()));
+        }
+        return documents;
+    }
+
+    private void recordRebuildWrite(long id) {
+        if (writtenDuringRebuild != null) {
+            writtenDuringRebuild.written(id);
+        }
+    }
+
+    private long postingBytes() {
+        return postings.values().stream().mapToLong(LongPostings::capacityBytes).sum();
+    }
+
+    private <T> T read(Supplier<T> supplier) {
+        lock.readLock().lock();
+        try {
+            return supplier.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private record Document(String text, boolean available) {
+
+        boolean matches(String query) {
+            return available && text.contains(query);
+        }
+    }
+}
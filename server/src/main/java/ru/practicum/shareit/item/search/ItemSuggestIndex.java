@@ -0,0 +1,282 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import static ru.practicum.shareit.common.TransactionCallbacks.afterCommit;
+
+/**
+ * Autocomplete over item names and the words of names and descriptions. A term is weighted by the
+ * items containing it: an available item counts {@value #AVAILABLE_FACTOR} times as much as an
+ * unavailable one, and every booking of the item adds to that.
+ *
+ * <p>Built once the application is ready and kept in sync by the item and booking services;
+ * changes are applied after the surrounding transaction commits. Item changes applied while the index is
+ * being built win over the rows the build read before them, see {@link RebuildWrites}.
+ */
+@Slf4j
+@Component
+public class ItemSuggestIndex implements MeterBinder {
+    static final int AVAILABLE_FACTOR = 4;
+    private static final int REBUILD_BATCH = 10_000;
+    private static final int MIN_WORD_LENGTH = 2;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SuggestTrie trie = new SuggestTrie();
+    private final Map<Long, Entry> items = new HashMap<>();
+    private final Map<Long, Long> bookings = new HashMap<>();
+    /**
+     * Items booked while {@link #rebuild()} runs; {@code null} otherwise.
+     */
+    private Set<Long> bookedDuringRebuild;
+    /**
+     * Item writes applied while {@link #rebuild()} runs; {@code null} otherwise.
+     */
+    private RebuildWrites writtenDuringRebuild;
+
+    public ItemSuggestIndex(ItemRepository itemRepository, BookingRepository bookingRepository) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        write(() -> {
+            bookedDuringRebuild = new HashSet<>();
+            writtenDuringRebuild = new RebuildWrites();
+        });
+        List<ItemBookingCount> counts = bookingRepository.countBookingsByItem();
+        lock.writeLock().lock();
+        try {
+            for (ItemBookingCount count : counts) {
+                bookings.put(count.getItemId(), count.getBookings());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long afterId = 0;
+        List<ItemSearchDocument> batch;
+        do {
+            batch = itemRepository.findSearchDocuments(afterId, PageRequest.of(0, REBUILD_BATCH));
+            lock.writeLock().lock();
+            try {
+                for (ItemSearchDocument item : batch) {
+                    if (!writtenDuringRebuild.isStale(item.getId())) {
+                        index(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH);
+        write(() -> writtenDuringRebuild = null);
+        recountBookedDuringRebuild();
+        log.info("Item suggest index built: {} terms", trie.size());
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = WHITESPACE.matcher(prefix.toLowerCase(Locale.ROOT)).replaceAll(" ").stripLeading();
+        lock.readLock().lock();
+        try {
+            return trie.top(normalized, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        Boolean available = item.getAvailable();
+        afterCommit(() -> write(() -> {
+            recordRebuildWrite(id);
+            index(id, name, description, available);
+        }));
+    }
+
+    /**
+     * Same as {@link #put} for every item, with a single after-commit update for all of them.
+     */
+    public void putAll(Collection<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<ItemSearchDocument> documents = ItemSearchIndex.snapshot(items);
+        afterCommit(() -> write(() -> {
+            for (ItemSearchDocument document : documents) {
+                recordRebuildWrite(document.getId());
+                index(document.getId(), document.getName(), document.getDescription(), document.getAvailable());
+            }
+        }));
+    }
+
+    public void remove(long id) {
+        afterCommit(() -> write(() -> {
+            recordRebuildWrite(id);
+            unindex(id);
+            bookings.remove(id);
+        }));
+    }
+
+    public void clear() {
+        afterCommit(() -> write(() -> {
+            if (writtenDuringRebuild != null) {
+                writtenDuringRebuild.cleared();
+            }
+            for (Long id : List.copyOf(items.keySet())) {
+                unindex(id);
+            }
+            bookings.clear();
+        }));
+    }
+
+    public void bookingCreated(long itemId) {
+        afterCommit(() -> write(() -> {
+            if (bookedDuringRebuild != null) {
+                bookedDuringRebuild.add(itemId);
+                return;
+            }
+            bookings.merge(itemId, 1L, Long::sum);
+            Entry entry = items.get(itemId);
+            if (entry != null) {
+                long delta = entry.available() ? AVAILABLE_FACTOR : 1;
+                entry.terms().forEach(term -> trie.add(term, delta));
+            }
+        }));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("items.suggest.terms", this, index -> index.size())
+                .register(registry);
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A booking committed while the index was rebuilt may or may not be in the counts loaded at its start, so
+     * its item gets a fresh count instead of an increment. Repeats until no booking arrives during a recount.
+     */
+    private void recountBookedDuringRebuild() {
+        while (true) {
+            Set<Long> itemIds;
+            lock.writeLock().lock();
+            try {
+                itemIds = bookedDuringRebuild;
+                bookedDuringRebuild = itemIds.isEmpty() ? null : new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (itemIds.isEmpty()) {
+                return;
+            }
+            Map<Long, Long> counts = new HashMap<>();
+            bookingRepository.countBookingsByItemIds(itemIds)
+                    .forEach(count -> counts.put(count.getItemId(), count.getBookings()));
+            write(() -> itemIds.forEach(id -> setBookings(id, counts.getOrDefault(id, 0L))));
+        }
+    }
+
+    private void recordRebuildWrite(long id) {
+        if (writtenDuringRebuild != null) {
+            writtenDuringRebuild.written(id);
+        }
+    }
+
+    private void setBookings(long id, long count) {
+        Entry entry = items.get(id);
+        long before = entry == null ? 0 : weight(id, entry);
+        bookings.put(id, count);
+        if (entry != null) {
+            long delta = weight(id, entry) - before;
+            entry.terms().forEach(term -> trie.add(term, delta));
+        }
+    }
+
+    private void index(long id, String name, String description, Boolean available) {
+        unindex(id);
+        Entry entry = new Entry(terms(name, description), Boolean.TRUE.equals(available));
+        items.put(id, entry);
+        long weight = weight(id, entry);
+        entry.terms().forEach(term -> trie.add(term, weight));
+    }
+
+    private void unindex(long id) {
+        Entry entry = items.remove(id);
+        if (entry != null) {
+            long weight = weight(id, entry);
+            entry.terms().forEach(term -> trie.add(term, -weight));
+        }
+    }
+
+    private long weight(long id, Entry entry) {
+        return (1 + bookings.getOrDefault(id, 0L)) * (entry.available() ? AVAILABLE_FACTOR : 1);
+    }
+
+    private static Set<String> terms(String name, String description) {
+        Set<String> terms = new LinkedHashSet<>();
+        String phrase = WHITESPACE.matcher(name.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+        if (!phrase.isEmpty()) {
+            terms.add(phrase);
+        }
+        addWords(terms, phrase);
+        addWords(terms, description.toLowerCase(Locale.ROOT));
+        return terms;
+    }
+
+    private static void addWords(Set<String> terms, String text) {
+        for (String word : WORD_SEPARATOR.split(text)) {
+            if (word.length() >= MIN_WORD_LENGTH) {
+                terms.add(word);
+            }
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record Entry(Set<String> terms, boolean available) {
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Item writes applied to an index while it is rebuilt from the database. A rebuild batch read before such a
+ * write committed would undo it, so the rebuild skips the items recorded here. After a clear it skips every
+ * remaining row: an item still in the database was inserted since and is indexed by its own write.
+ *
+ * <p>Not thread-safe; guarded by the owning index's write lock.
+ */
+final class RebuildWrites {
+    private final Set<Long> ids = new HashSet<>();
+    private boolean cleared;
+
+    void written(long id) {
+        ids.add(id);
+    }
+
+    void cleared() {
+        cleared = true;
+    }
+
+    boolean isStale(long id) {
+        return cleared || ids.contains(id);
+    }
+}
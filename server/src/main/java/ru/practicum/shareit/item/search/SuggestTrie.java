@@ -0,0 +1,147 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Weighted term trie. Children are kept in parallel sorted arrays instead of maps, and every node
+ * remembers the best weight below it, so top-k completion is a best-first walk that only visits
+ * branches able to beat the current results. Not thread-safe.
+ */
+class SuggestTrie {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Comparator<Candidate> BEST_FIRST = Comparator
+            .comparingLong(Candidate::weight).reversed()
+            .thenComparing(Candidate::text);
+
+    private final Node root = new Node();
+    private int terms;
+
+    /**
+     * Adds {@code delta} to the weight of {@code term}; a term whose weight drops to zero is removed.
+     */
+    void add(String term, long delta) {
+        if (term.isEmpty() || delta == 0) {
+            return;
+        }
+        Node[] path = new Node[term.length() + 1];
+        path[0] = root;
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            Node child = node.child(term.charAt(i));
+            if (child == null) {
+                if (delta < 0) {
+                    return;
+                }
+                child = node.addChild(term.charAt(i));
+            }
+            node = child;
+            path[i + 1] = node;
+        }
+        long before = node.weight;
+        node.weight = Math.max(0, node.weight + delta);
+        if (before == 0 && node.weight > 0) {
+            terms++;
+        } else if (before > 0 && node.weight == 0) {
+            terms--;
+        }
+        for (int i = term.length(); i >= 0; i--) {
+            Node current = path[i];
+            current.refreshBest();
+            if (i > 0 && current.weight == 0 && current.keys.length == 0) {
+                path[i - 1].removeChild(term.charAt(i - 1));
+            }
+        }
+    }
+
+    List<String> top(String prefix, int limit) {
+        List<String> result = new ArrayList<>(limit);
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null || limit <= 0) {
+            return result;
+        }
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(BEST_FIRST);
+        queue.add(new Candidate(node, prefix, node.best, false));
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.complete()) {
+                result.add(candidate.text());
+                continue;
+            }
+            Node current = candidate.node();
+            if (current.weight > 0) {
+                queue.add(new Candidate(current, candidate.text(), current.weight, true));
+            }
+            for (int i = 0; i < current.keys.length; i++) {
+                Node child = current.children[i];
+                queue.add(new Candidate(child, candidate.text() + current.keys[i], child.best, false));
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return terms;
+    }
+
+    private record Candidate(Node node, String text, long weight, boolean complete) {
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private long weight;
+        private long best;
+
+        private Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? null : children[index];
+        }
+
+        private Node addChild(char key) {
+            int insertAt = -Arrays.binarySearch(keys, key) - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            Node child = new Node();
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = child;
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys.length == 0 ? NO_KEYS : newKeys;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+
+        private void refreshBest() {
+            long max = weight;
+            for (Node child : children) {
+                max = Math.max(max, child.best);
+            }
+            best = max;
+        }
+    }
+}
@@ -1,21 +1,57 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.comments.CommentDto;
+import ru.practicum.shareit.item.comments.CommentDtoPage;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequest;
+import ru.practicum.shareit.item.dto.ItemBulkResult;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBookingAndComments;
 import ru.practicum.shareit.item.dto.ItemDtoInput;
+import ru.practicum.shareit.item.dto.ItemDtoPage;
+import ru.practicum.shareit.item.dto.ItemFreeSlot;
 
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 
 public interface ItemService {
     List<ItemDtoBookingAndComments> getAll(long sharerId, int from, int size);
 
+    ItemDtoPage getAllByCursor(long sharerId, String cursor, int size);
+
+    /**
+     * Checks the owner up front and returns their items as NDJSON in {@link ItemDtoInput} form, which
+     * {@code POST /items/bulk} accepts back.
+     */
+    StreamingResponseBody export(long sharerId);
+
     ItemDtoBookingAndComments getById(long sharerId, long id);
 
+    /**
+     * Comments of an item, newest first, paged by keyset on creation time and id; an empty cursor starts
+     * from the newest comment.
+     */
+    CommentDtoPage getComments(long itemId, String cursor, int size);
+
+    /**
+     * Parts of {@code [from, to)} not covered by a waiting or approved booking of the item, in order.
+     */
+    List<ItemFreeSlot> getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Ids of the given items that are available and free for the whole of {@code [from, to)}, in request order.
+     */
+    List<Long> getFreeItems(ItemAvailabilityRequest request);
+
     List<ItemDto> getByText(String text, int from, int size);
 
+    List<String> suggest(String prefix, int limit);
+
     ItemDto create(long sharerId, ItemDtoInput itemDto);
 
+    ItemBulkResult createAll(long sharerId, Iterator<ItemDtoInput> items);
+
     ItemDto update(long sharerId, long id, ItemDto itemDto);
 
     void deleteById(long sharerId, long id);
@@ -1,21 +1,29 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.EntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingIdAndBookerId;
-import ru.practicum.shareit.booking.dto.BookingMapper;
-import ru.practicum.shareit.booking.dto.BookingMapperImpl;
+import ru.practicum.shareit.booking.dto.ItemBookingSlot;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.Cursor;
+import ru.practicum.shareit.common.NdjsonExporter;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ServerException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.comments.*;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
@@ -24,9 +32,16 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 
@@ -37,6 +52,10 @@ import static java.util.stream.Collectors.toList;
 @Service
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_NAME_LENGTH = 50;
+    private static final int MAX_DESCRIPTION_LENGTH = 100;
+    private static final String EXPORT_SQL = "select id, name, description, is_available, request_id " +
+            "from items where owner_id = ? order by id";
 
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
@@ -44,8 +63,19 @@ public class ItemServiceImpl implements ItemService {
     private final CommentRepository commentRepository;
     private final ItemMapper itemMapper = new ItemMapperImpl(new UserMapperImpl());
     private final CommentMapper commentMapper = new CommentMapperImpl();
-    private final BookingMapper bookingMapper = new BookingMapperImpl();
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemViewCache itemViewCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final EntityManager entityManager;
+    private final NdjsonExporter ndjsonExporter;
+    @Value("${shareit.search.indexed:false}")
+    private boolean indexedSearch;
+    @Value("${shareit.items.bulk-batch-size:500}")
+    private int bulkBatchSize;
+    @Value("${shareit.items.view-comments:10}")
+    private int viewComments;
 
     @Override
     @Transactional(readOnly = true)
@@ -57,50 +87,162 @@ public class ItemServiceImpl implements ItemService {
 
         List<Item> items = itemRepository.findAllByOwner_Id_OrderByIdAsc(sharerId,
                 PageRequest.of(from / size, size));
-        List<ItemDtoBookingAndComments> itemDtoWithBookingAndComments = new ArrayList<>();
-        Set<Long> itemsId = items.stream().map(Item::getId).collect(Collectors.toSet());
-        List<Comment> comments = commentRepository.findByItem_IdIn(itemsId);
-        Map<Item, List<Comment>> commentsByItem = comments.stream()
-                .collect(groupingBy(Comment::getItem, toList()));
-
-        List<Booking> lastBookings = bookingRepository.findLastBookings(itemsId);
-        Map<Item, List<Booking>> bookingsByItem = lastBookings.stream()
-                .collect(groupingBy(Booking::getItem, toList()));
+        return withBookingsAndComments(items);
+    }
 
-        List<Booking> nextBookings = bookingRepository.findNextBookings(itemsId);
-        Map<Item, List<Booking>> bookingsByItem2 = nextBookings.stream()
-                .collect(groupingBy(Booking::getItem, toList()));
+    @Override
+    @Transactional(readOnly = true)
+    public ItemDtoPage getAllByCursor(long sharerId, String cursor, int size) {
+        log.debug("Request GET to /items with cursor");
+        long afterId = Cursor.decode(cursor);
+        userRepository.findById(sharerId)
+                .orElseThrow(() ->
+                        new NotFoundException("User with id = " + sharerId + " is not found"));
 
-        fillItemDtoWithBookingAndComments(items, itemDtoWithBookingAndComments, commentsByItem, bookingsByItem,
-                bookingsByItem2);
+        List<Item> items = itemRepository.findAllByOwner_IdAndIdGreaterThanOrderByIdAsc(sharerId, afterId,
+                PageRequest.of(0, size));
+        String nextCursor = items.isEmpty() || items.size() < size ? null : Cursor.encode(items.getLast().getId());
+        return new ItemDtoPage(withBookingsAndComments(items), nextCursor);
+    }
 
-        return itemDtoWithBookingAndComments;
+    @Override
+    @Transactional(readOnly = true)
+    public StreamingResponseBody export(long sharerId) {
+        log.debug("Request GET to /items/export");
+        if (!userRepository.existsById(sharerId)) {
+            throw new NotFoundException("User with id = " + sharerId + " is not found");
+        }
+        return ndjsonExporter.export(EXPORT_SQL, (rs, rowNum) -> new ItemDtoInput(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getBoolean("is_available"),
+                rs.getObject("request_id", Long.class)), sharerId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemDtoBookingAndComments  getById(long ownerId, long id) {
         log.info("Request GET by id to /items/{}", id);
-        userRepository.findById(ownerId)
+        ItemDtoBookingAndComments cached = itemViewCache.get(ownerId, id);
+        if (cached != null) {
+            if (!userRepository.existsById(ownerId)) {
+                throw new NotFoundException("User with id = " + ownerId + " is not found");
+            }
+            return cached;
+        }
+        long cacheVersion = itemViewCache.version();
+        ItemView item = itemRepository.findItemView(ownerId, id, LocalDateTime.now())
                 .orElseThrow(() ->
                         new NotFoundException("User with id = " + ownerId + " is not found"));
-        Item item = itemRepository.findById(id)
-                .orElseThrow(() ->
-                        new NotFoundException("Item with id = " + id + " is not found"));
+        if (item.getId() == null) {
+            throw new NotFoundException("Item with id = " + id + " is not found");
+        }
 
-        return getItemDtoWithBookingAndComments(ownerId, item);
+        List<ItemCommentRow> comments = commentRepository.findNewestByItemIds(List.of(id), viewComments);
+        ItemDtoBookingAndComments view = itemMapper.toDtoWithBookingAndComments(item, toCommentDtos(comments),
+                comments.isEmpty() ? 0L : comments.getFirst().getCommentCount());
+        itemViewCache.put(cacheVersion, ownerId, item, view);
+        return view;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CommentDtoPage getComments(long itemId, String cursor, int size) {
+        log.debug("Request GET to /items/{}/comments", itemId);
+        Cursor.Position after = Cursor.decodePosition(cursor);
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item with id = " + itemId + " is not found");
+        }
+
+        PageRequest page = PageRequest.of(0, size);
+        List<CommentDto> comments = after == null
+                ? commentRepository.findPageByItemId(itemId, page)
+                : commentRepository.findPageByItemIdBefore(itemId, after.time(), after.id(), page);
+        String nextCursor = comments.size() < size ? null
+                : Cursor.encode(comments.getLast().getCreated(), comments.getLast().getId());
+        return new CommentDtoPage(comments, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemFreeSlot> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        log.debug("Request GET to /items/{}/availability?from={}&to={}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Start of the period must be before its end");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item with id = " + itemId + " is not found");
+        }
+        return itemAvailabilityIndex.freeSlots(itemId, from, to);
+    }
+
+    /**
+     * Items whose intervals are loaded are answered in memory, and only their availability flag is read;
+     * the rest go to one anti-join. Either way it is at most two statements, whatever the number of items.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getFreeItems(ItemAvailabilityRequest request) {
+        log.debug("Request POST to /items/availability for {} items", request.getItemIds().size());
+        if (!request.getFrom().isBefore(request.getTo())) {
+            throw new BadRequestException("Start of the period must be before its end");
+        }
+        Set<Long> itemIds = new LinkedHashSet<>(request.getItemIds());
+        Map<Long, Boolean> inMemory = itemAvailabilityIndex.isFreeIfLoaded(itemIds, request.getFrom(),
+                request.getTo());
+        List<Long> freeInMemory = new ArrayList<>();
+        List<Long> unresolved = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            Boolean free = inMemory.get(itemId);
+            if (free == null) {
+                unresolved.add(itemId);
+            } else if (free) {
+                freeInMemory.add(itemId);
+            }
+        }
+
+        Set<Long> freeIds = new HashSet<>();
+        if (!unresolved.isEmpty()) {
+            freeIds.addAll(itemRepository.findFreeItemIds(unresolved, request.getFrom(), request.getTo()));
+        }
+        if (!freeInMemory.isEmpty()) {
+            freeIds.addAll(itemRepository.findAvailableIds(freeInMemory));
+        }
+        return itemIds.stream()
+                .filter(freeIds::contains)
+                .collect(toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> getByText(String text, int from, int size) {
         log.debug("Request GET to /items/search?text={}", text);
-        return itemRepository.findByText(text, PageRequest.of(from / size, size))
-                .stream()
+        if (itemSearchIndex.isEnabled()) {
+            List<Long> ids = itemSearchIndex.search(text, (long) (from / size) * size, size);
+            Map<Long, Item> itemsById = itemRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            return ids.stream()
+                    .map(itemsById::get)
+                    .filter(Objects::nonNull)
+                    .map(itemMapper::toDto)
+                    .collect(toList());
+        }
+        PageRequest page = PageRequest.of(from / size, size);
+        List<Item> items = indexedSearch
+                ? itemRepository.searchIndexed(text, page)
+                : itemRepository.findByText(text, page);
+        return items.stream()
                 .map(itemMapper::toDto)
                 .collect(toList());
     }
 
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        log.debug("Request GET to /items/suggest?prefix={}", prefix);
+        return itemSuggestIndex.suggest(prefix, limit);
+    }
+
     @Override
     @Transactional
     public ItemDto create(long sharerId, ItemDtoInput itemDto) {
@@ -120,8 +262,51 @@ public class ItemServiceImpl implements ItemService {
         }
         // ItemMapper itemMapper1 = new ItemMapperImpl(new UserMapperImpl());
         Item item = itemMapper.fromDtoInput(itemDto, owner, itemRequest);
+        Item saved = itemRepository.save(item);
+        itemSearchIndex.put(saved);
+        itemSuggestIndex.put(saved);
+
+        return itemMapper.toDto(saved);
+    }
+
+    /**
+     * Persists valid rows in batches of {@code shareit.items.bulk-batch-size}; the items' pooled sequence lets
+     * Hibernate send each batch as one JDBC batch. The persistence context is cleared after every batch, so
+     * entities do not pile up. The import is one transaction, though, and the in-memory indexes are only
+     * updated when it commits: each batch registers one after-commit update that holds the name and description
+     * of its rows until then, so memory still grows with the size of the import.
+     */
+    @Override
+    @Transactional
+    public ItemBulkResult createAll(long sharerId, Iterator<ItemDtoInput> items) {
+        log.debug("Request POST to /items/bulk, with sharerId = {}", sharerId);
+        if (!userRepository.existsById(sharerId)) {
+            throw new NotFoundException("User with id = " + sharerId + " not found");
+        }
+        List<Long> ids = new ArrayList<>();
+        List<ItemBulkError> errors = new ArrayList<>();
+        List<ItemDtoInput> batch = new ArrayList<>();
+        List<Long> batchIndexes = new ArrayList<>();
+        long index = 0;
+        while (items.hasNext()) {
+            ItemDtoInput itemDto = items.next();
+            String error = validateBulkRow(itemDto);
+            if (error != null) {
+                errors.add(new ItemBulkError(index, error));
+            } else {
+                batch.add(itemDto);
+                batchIndexes.add(index);
+            }
+            index++;
+            if (batch.size() >= bulkBatchSize) {
+                insertBatch(sharerId, batch, batchIndexes, ids, errors);
+            }
+        }
+        insertBatch(sharerId, batch, batchIndexes, ids, errors);
+        errors.sort(Comparator.comparingLong(ItemBulkError::getIndex));
+        log.info("Imported {} items for user {}, {} rows rejected", ids.size(), sharerId, errors.size());
 
-        return itemMapper.toDto(itemRepository.save(item));
+        return new ItemBulkResult(ids.size(), ids, errors);
     }
 
     @Override
@@ -139,8 +324,12 @@ public class ItemServiceImpl implements ItemService {
             throw new NotFoundException("Item with this id is not found in this user");
         }
         itemDto.setId(id);
+        Item updated = update(itemDto, item);
+        itemSearchIndex.put(updated);
+        itemSuggestIndex.put(updated);
+        itemViewCache.invalidate(id);
 
-        return itemMapper.toDto(update(itemDto, item));
+        return itemMapper.toDto(updated);
     }
 
     @Override
@@ -148,6 +337,10 @@ public class ItemServiceImpl implements ItemService {
     public void deleteById(long ownerId, long id) {
         log.debug("Request DELETE to /items/{}", id);
         itemRepository.deleteById(id);
+        itemSearchIndex.remove(id);
+        itemSuggestIndex.remove(id);
+        itemViewCache.invalidate(id);
+        itemAvailabilityIndex.remove(id);
     }
 
     @Override
@@ -155,6 +348,10 @@ public class ItemServiceImpl implements ItemService {
     public void deleteAll() {
         log.debug("Request DELETE to /items)");
         itemRepository.deleteAll();
+        itemSearchIndex.clear();
+        itemSuggestIndex.clear();
+        itemViewCache.invalidateAll();
+        itemAvailabilityIndex.clear();
     }
 
     @Override
@@ -176,10 +373,75 @@ public class ItemServiceImpl implements ItemService {
 
         Comment comment = commentMapper.fromDto(commentDto, item, author);
         commentRepository.save(comment);
+        itemRepository.incrementCommentCount(itemId);
+        itemViewCache.invalidate(itemId);
 
         return commentMapper.toDto(comment);
     }
 
+    private static String validateBulkRow(ItemDtoInput itemDto) {
+        if (itemDto == null) {
+            return "Malformed item";
+        }
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Name must not be blank";
+        }
+        if (itemDto.getName().length() > MAX_NAME_LENGTH) {
+            return "Name must not be longer than " + MAX_NAME_LENGTH;
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Description must not be blank";
+        }
+        if (itemDto.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Description must not be longer than " + MAX_DESCRIPTION_LENGTH;
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Available must not be null";
+        }
+        return null;
+    }
+
+    private void insertBatch(long sharerId, List<ItemDtoInput> batch, List<Long> batchIndexes,
+                             List<Long> ids, List<ItemBulkError> errors) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<Long> requestIds = batch.stream()
+                .map(ItemDtoInput::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestIds.isEmpty() ? Map.of()
+                : itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        User owner = entityManager.getReference(User.class, sharerId);
+        List<Item> saved = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            ItemDtoInput itemDto = batch.get(i);
+            ItemRequest itemRequest = null;
+            if (itemDto.getRequestId() != null) {
+                itemRequest = requests.get(itemDto.getRequestId());
+                if (itemRequest == null) {
+                    errors.add(new ItemBulkError(batchIndexes.get(i),
+                            "Request with id = " + itemDto.getRequestId() + " is not found"));
+                    continue;
+                }
+            }
+            Item item = itemMapper.fromDtoInput(itemDto, owner, itemRequest);
+            item.setId(null);
+            entityManager.persist(item);
+            saved.add(item);
+        }
+        entityManager.flush();
+        for (Item item : saved) {
+            ids.add(item.getId());
+        }
+        itemSearchIndex.putAll(saved);
+        itemSuggestIndex.putAll(saved);
+        entityManager.clear();
+        batch.clear();
+        batchIndexes.clear();
+    }
+
     private Item update(ItemDto itemDto, Item item) {
         if (itemDto.getName() != null && !itemDto.getName().isBlank()) {
             item.setName(itemDto.getName());
@@ -193,60 +455,53 @@ public class ItemServiceImpl implements ItemService {
         return item;
     }
 
-    private ItemDtoBookingAndComments getItemDtoWithBookingAndComments(long ownerID, Item item) {
-        BookingIdAndBookerId lastBooking = null;
-        BookingIdAndBookerId nextBooking = null;
-        if (item.getOwner().getId() == ownerID) {
-            lastBooking = bookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(item.getId(),
-                            LocalDateTime.now())
-                    .map(bookingMapper::toDtoOnlyIdAndBookerId)
-                    .orElse(null);
-            nextBooking = bookingRepository.findFirstByItem_IdAndStartAfterOrderByEndDesc(item.getId(),
-                            LocalDateTime.now())
-                    .map(bookingMapper::toDtoOnlyIdAndBookerId)
-                    .orElse(null);
-        }
-        List<CommentDto> comments = commentRepository.findByItem_Id(item.getId()).stream()
-                .map(commentMapper::toDto)
-                .collect(toList());
-        return itemMapper.toDtoWithBookingAndComments(item, lastBooking, nextBooking, comments);
+    private List<ItemDtoBookingAndComments> withBookingsAndComments(List<Item> items) {
+        List<ItemDtoBookingAndComments> itemDtoWithBookingAndComments = new ArrayList<>();
+        if (items.isEmpty()) {
+            return itemDtoWithBookingAndComments;
+        }
+        Set<Long> itemsId = items.stream().map(Item::getId).collect(Collectors.toSet());
+        Map<Long, List<ItemCommentRow>> commentsByItem = commentRepository.findNewestByItemIds(itemsId, viewComments)
+                .stream()
+                .collect(groupingBy(ItemCommentRow::getItemId, toList()));
+
+        Map<Long, BookingIdAndBookerId> lastBookings = new HashMap<>();
+        Map<Long, BookingIdAndBookerId> nextBookings = new HashMap<>();
+        for (ItemBookingSlot slot : bookingRepository.findLastAndNextBookings(itemsId, LocalDateTime.now())) {
+            Map<Long, BookingIdAndBookerId> target = ItemBookingSlot.LAST.equals(slot.getKind())
+                    ? lastBookings : nextBookings;
+            target.put(slot.getItemId(), new BookingIdAndBookerId(slot.getId(), slot.getBookerId()));
+        }
+
+        fillItemDtoWithBookingAndComments(items, itemDtoWithBookingAndComments, commentsByItem, lastBookings,
+                nextBookings);
+
+        return itemDtoWithBookingAndComments;
     }
 
     private void fillItemDtoWithBookingAndComments(List<Item> items,
                                                    List<ItemDtoBookingAndComments> itemDtoWithBookingAndComments,
-                                                   Map<Item, List<Comment>> commentsByItem,
-                                                   Map<Item, List<Booking>> bookingsByItem,
-                                                   Map<Item, List<Booking>> bookingsByItem2) {
+                                                   Map<Long, List<ItemCommentRow>> commentsByItem,
+                                                   Map<Long, BookingIdAndBookerId> lastBookings,
+                                                   Map<Long, BookingIdAndBookerId> nextBookings) {
+        boolean anyComments = commentsByItem.values().stream()
+                .flatMap(List::stream)
+                .anyMatch(row -> row.getId() != null);
         for (Item item : items) {
-            List<CommentDto> commentsDto = null;
-            BookingIdAndBookerId lastBooking = null;
-            BookingIdAndBookerId nextBooking = null;
-
-            if (!commentsByItem.isEmpty()) {
-                commentsDto = commentsByItem.get(item).stream()
-                        .map(commentMapper::toDto)
-                        .collect(toList());
-            }
-
-            if (bookingsByItem.get(item) != null) {
-                List<Booking> lastBookings = bookingsByItem.get(item);
-
-                if (!lastBookings.isEmpty()) {
-                    lastBooking = bookingMapper.toDtoOnlyIdAndBookerId(lastBookings.get(0));
-                }
-            }
-
-            if (bookingsByItem2.get(item) != null) {
-                List<Booking> nextBookings = bookingsByItem2.get(item);
-
-                if (!nextBookings.isEmpty()) {
-                    nextBooking = bookingMapper.toDtoOnlyIdAndBookerId(nextBookings.get(0));
-                }
-            }
+            List<ItemCommentRow> rows = commentsByItem.getOrDefault(item.getId(), List.of());
+            List<CommentDto> commentsDto = anyComments ? toCommentDtos(rows) : null;
+            Long commentCount = rows.isEmpty() ? 0L : rows.getFirst().getCommentCount();
 
             itemDtoWithBookingAndComments.add(itemMapper.toDtoWithBookingAndComments(
-                    item, lastBooking, nextBooking, commentsDto
+                    item, lastBookings.get(item.getId()), nextBookings.get(item.getId()), commentsDto, commentCount
             ));
         }
     }
+
+    private static List<CommentDto> toCommentDtos(List<ItemCommentRow> rows) {
+        return rows.stream()
+                .filter(row -> row.getId() != null)
+                .map(row -> new CommentDto(row.getId(), row.getText(), row.getAuthorName(), row.getCreated()))
+                .collect(toList());
+    }
 }
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDtoBookingAndComments;
+import ru.practicum.shareit.item.dto.ItemView;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static ru.practicum.shareit.common.TransactionCallbacks.afterCompletion;
+
+/**
+ * Assembled {@code GET /items/{id}} views. Every item keeps the view shown to other users and, once the
+ * owner has asked for it, the owner's view with last and next booking. The owner's view is dropped when
+ * the earliest future booking starts, whatever its status, since that moves the last/next split, and every
+ * entry expires after {@code shareit.item-view-cache.ttl}.
+ *
+ * <p>Writes invalidate after the surrounding transaction completes. Each invalidation bumps a version, so
+ * a view loaded before the write is never stored after it.
+ */
+@Component
+public class ItemViewCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Cache<Long, Entry> cache;
+
+    public ItemViewCache(@Value("${shareit.item-view-cache.enabled:true}") boolean enabled,
+                         @Value("${shareit.item-view-cache.max-size:10000}") long maxSize,
+                         @Value("${shareit.item-view-cache.ttl:5m}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns the cached view of the item for this user, or {@code null} if it has to be loaded.
+     */
+    public ItemDtoBookingAndComments get(long userId, long itemId) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(itemId);
+        ItemDtoBookingAndComments view = entry == null ? null : entry.viewFor(userId, LocalDateTime.now());
+        (view == null ? misses : hits).increment();
+        return view;
+    }
+
+    /**
+     * Version to pass to {@link #put} for a view loaded from now on.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    public void put(long loadVersion, long userId, ItemView item, ItemDtoBookingAndComments view) {
+        if (!enabled) {
+            return;
+        }
+        cache.asMap().compute(item.getId(), (id, current) -> {
+            if (version.get() != loadVersion) {
+                return current;
+            }
+            if (current == null || current.ownerId() != item.getOwnerId()) {
+                current = new Entry(item.getOwnerId(), null, null, null);
+            }
+            if (userId == item.getOwnerId()) {
+                ItemDtoBookingAndComments publicView = new ItemDtoBookingAndComments(view.getId(), view.getName(),
+                        view.getDescription(), view.getAvailable(), null, null, view.getComments(),
+                        view.getCommentCount());
+                return new Entry(current.ownerId(), publicView, view, item.getValidUntil());
+            }
+            return new Entry(current.ownerId(), view, current.ownerView(), current.ownerValidUntil());
+        });
+    }
+
+    /**
+     * The item itself or its comments changed: drops both views.
+     */
+    public void invalidate(long itemId) {
+        afterCompletion(() -> {
+            version.incrementAndGet();
+            cache.invalidate(itemId);
+        });
+    }
+
+    /**
+     * A booking of the item changed: drops the owner's view only, other users do not see bookings.
+     */
+    public void invalidateBookings(long itemId) {
+        afterCompletion(() -> {
+            version.incrementAndGet();
+            cache.asMap().computeIfPresent(itemId, (id, entry) -> entry.withoutOwnerView());
+        });
+    }
+
+    public void invalidateAll() {
+        afterCompletion(() -> {
+            version.incrementAndGet();
+            cache.invalidateAll();
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("items.view.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("items.view.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("items.view.hit.ratio", this, ItemViewCache::hitRatio)
+                .register(registry);
+        Gauge.builder("items.view.size", cache, Cache::estimatedSize)
+                .register(registry);
+    }
+
+    double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private record Entry(long ownerId, ItemDtoBookingAndComments publicView, ItemDtoBookingAndComments ownerView,
+                         LocalDateTime ownerValidUntil) {
+
+        ItemDtoBookingAndComments viewFor(long userId, LocalDateTime now) {
+            if (userId != ownerId) {
+                return publicView;
+            }
+            if (ownerView == null || ownerValidUntil != null && !now.isBefore(ownerValidUntil)) {
+                return null;
+            }
+            return ownerView;
+        }
+
+        Entry withoutOwnerView() {
+            return new Entry(ownerId, publicView, null, null);
+        }
+    }
+}
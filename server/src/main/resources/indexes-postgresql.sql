@@ -0,0 +1,18 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Item search: substring match over name or description, see ItemRepository.searchIndexed
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm
+    ON items USING gin (lower(name) gin_trgm_ops)
+    WHERE is_available;
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm
+    ON items USING gin (lower(description) gin_trgm_ops)
+    WHERE is_available;
+
+-- Bookings of one item must not overlap unless rejected or canceled, see BookingServiceImpl.saveChecked.
+-- The gist index lets concurrent inserts of disjoint periods proceed; only overlapping ones wait on each other.
+-- schema.sql recreates the table on every start, so the constraint is always added to a fresh table.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, '[)') WITH &&)
+    WHERE (status NOT IN ('REJECTED', 'CANCELED'));
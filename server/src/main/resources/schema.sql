@@ -1,4 +1,5 @@
 DROP TABLE IF EXISTS users, requests, items, bookings, comments;
+DROP SEQUENCE IF EXISTS items_seq;
 
 CREATE TABLE users
 (
@@ -18,14 +19,20 @@ CREATE TABLE requests
     CONSTRAINT pk_request PRIMARY KEY (id)
 );
 
+-- Items take ids from a pooled sequence so that bulk imports can be batched. Rows inserted without an id draw
+-- from the same sequence, so they cannot collide with ids Hibernate has already handed out.
+CREATE SEQUENCE items_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE items
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT DEFAULT nextval('items_seq')     NOT NULL,
     name         VARCHAR(50)                             NOT NULL,
     description  VARCHAR(100)                            NOT NULL,
     is_available BOOLEAN                                 NOT NULL,
     owner_id     BIGINT REFERENCES users (id),
     request_id   BIGINT REFERENCES requests (id),
+    -- Number of comments, kept up to date by ItemServiceImpl.createComment.
+    comment_count BIGINT                                 NOT NULL DEFAULT 0,
     CONSTRAINT pk_item PRIMARY KEY (id)
 );
 
@@ -48,4 +55,24 @@ CREATE TABLE comments
     author_id BIGINT REFERENCES users (id),
     created TIMESTAMP WITHOUT TIME ZONE,
     CONSTRAINT pk_comment PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+-- Newest-first comment pages and the newest comments shown on item views.
+CREATE INDEX ix_comments_item_created ON comments (item_id, created DESC, id DESC);
+
+-- Owner item pages, keyset by id, and the owner side of booking queries.
+CREATE INDEX ix_items_owner ON items (owner_id, id);
+CREATE INDEX ix_items_request ON items (request_id);
+
+CREATE INDEX ix_requests_requester ON requests (requester_id, created DESC);
+-- The feed of other users' requests, newest first; see ItemRequestServiceImpl.getAllAnotherUsers.
+CREATE INDEX ix_requests_created ON requests (created DESC);
+
+-- Booker pages in every state, keyset by (start_date desc, id desc); see BookingQueryRepositoryImpl.
+CREATE INDEX ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX ix_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+-- Owner pages, reached per item through ix_items_owner.
+CREATE INDEX ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+-- Last/next approved bookings, availability intervals and the free-items anti-join; end_date is carried so
+-- the anti-join's overlap test is answered from the index alone.
+CREATE INDEX ix_bookings_item_status_start ON bookings (item_id, status, start_date, end_date);
@@ -0,0 +1,22 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * PostgreSQL for tests that depend on its planner, extensions or constraints. Use together with
+ * {@code @ActiveProfiles("postgres")}, {@code @AutoConfigureTestDatabase(replace = NONE)} for slice tests and
+ * {@code @Testcontainers(disabledWithoutDocker = true)}, so such tests are skipped where Docker is missing.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class PostgresContainerConfiguration {
+
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer<?> postgresContainer() {
+        return new PostgreSQLContainer<>(DockerImageName.parse("postgres:16.1"));
+    }
+}
@@ -0,0 +1,242 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.Cursor;
+import ru.practicum.shareit.item.comments.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_CLASS;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.BEFORE_TEST_CLASS;
+
+/**
+ * Runs the hot-path repository queries on PostgreSQL against a generated dataset, records the SQL Hibernate
+ * sends together with the values bound to it, and checks with {@code EXPLAIN} that the planner does not scan
+ * a whole hot table for those values. The {@code like} search of {@link ItemRepository#findByText}, used only
+ * where the trigram index is missing, scans by design and is not run here.
+ */
+@DataJpaTest
+@ActiveProfiles("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostgresContainerConfiguration.class, QueryPlanTest.QueryCapture.class})
+@Sql(scripts = "query-plan-dataset.sql", executionPhase = BEFORE_TEST_CLASS)
+@Sql(scripts = "query-plan-cleanup.sql", executionPhase = AFTER_TEST_CLASS)
+class QueryPlanTest {
+    private static final List<String> HOT_TABLES = List.of("bookings", "items", "comments", "requests");
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "created");
+    private static final long USER = 7L;
+    private static final long ITEM = 8L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        QueryCapture.clear();
+    }
+
+    @Test
+    void bookingPages_shouldUseIndexes() {
+        Cursor.Position after = new Cursor.Position(NOW, 50_000L);
+        for (BookingQuery.Party party : BookingQuery.Party.values()) {
+            for (State state : EnumSet.complementOf(EnumSet.of(State.UNSUPPORTED_STATUS))) {
+                bookingRepository.findPage(new BookingQuery(party, USER, state, NOW, null, 20, 10));
+                bookingRepository.findPage(new BookingQuery(party, USER, state, NOW, after, 0, 10));
+            }
+        }
+        bookingRepository.findBookingsByBooker_IdAndItem_IdAndEndIsBefore(USER, ITEM, NOW);
+
+        assertNoSeqScansOnHotTables();
+    }
+
+    @Test
+    void itemViewsAndAvailability_shouldUseIndexes() {
+        List<Long> itemIds = List.of(ITEM, ITEM + 1, ITEM + 2);
+        bookingRepository.findLastAndNextBookings(itemIds, NOW);
+        bookingRepository.findIntervalsByItemId(ITEM, EnumSet.of(Status.WAITING, Status.APPROVED));
+        itemRepository.findItemView(USER, ITEM, NOW);
+        itemRepository.findFreeItemIds(itemIds, NOW, NOW.plusDays(1));
+        itemRepository.findAvailableIds(itemIds);
+        commentRepository.findNewestByItemIds(itemIds, 10);
+        commentRepository.findPageByItemId(ITEM, PageRequest.of(0, 20));
+        commentRepository.findPageByItemIdBefore(ITEM, NOW, 40_000L, PageRequest.of(0, 20));
+
+        assertNoSeqScansOnHotTables();
+    }
+
+    @Test
+    void ownerItemsAndRequests_shouldUseIndexes() {
+        itemRepository.findAllByOwner_Id_OrderByIdAsc(USER, PageRequest.of(0, 20));
+        itemRepository.findAllByOwner_IdAndIdGreaterThanOrderByIdAsc(USER, 10_000L, PageRequest.of(0, 20));
+        itemRepository.findByRequest_IdIn(List.of(4L, 8L));
+        itemRepository.findByRequest_IdOrderById(4L);
+        commentRepository.findByItem_IdIn(Set.of(ITEM, ITEM + 1));
+        itemRequestRepository.findByRequester_Id(USER);
+        itemRequestRepository.findByRequester_IdNot(USER, PageRequest.of(0, 20, NEWEST_FIRST));
+        itemRequestRepository.findByRequester_IdNot(USER, PageRequest.of(5, 20, NEWEST_FIRST));
+
+        assertNoSeqScansOnHotTables();
+    }
+
+    @Test
+    void search_shouldUseTrigramIndex() {
+        itemRepository.searchIndexed("perforator", PageRequest.of(0, 20));
+        itemRepository.searchIndexed("perforator", PageRequest.of(2, 20));
+
+        assertNoSeqScansOnHotTables();
+    }
+
+    private void assertNoSeqScansOnHotTables() {
+        List<CapturedQuery> queries = QueryCapture.selects();
+        assertThat(queries).isNotEmpty();
+        for (CapturedQuery query : queries) {
+            String plan = String.join("\n",
+                    jdbcTemplate.queryForList("EXPLAIN " + query.sql(), String.class, query.parameters()));
+            for (String table : HOT_TABLES) {
+                assertThat(plan).as(query.sql()).doesNotContain("Seq Scan on " + table + " ");
+            }
+        }
+    }
+
+    record CapturedQuery(String sql, Object[] parameters) {
+    }
+
+    /**
+     * Wraps the data source so that every select sent through it is recorded with its bound values, since a
+     * plan explained without them would not be the one PostgreSQL picks for the query.
+     */
+    static class QueryCapture {
+        private static final List<CapturedQuery> QUERIES = new ArrayList<>();
+
+        static synchronized void clear() {
+            QUERIES.clear();
+        }
+
+        static synchronized List<CapturedQuery> selects() {
+            return List.copyOf(QUERIES);
+        }
+
+        private static synchronized void record(String sql, Map<Integer, Object> parameters) {
+            if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                QUERIES.add(new CapturedQuery(sql, parameters.values().toArray()));
+            }
+        }
+
+        @Bean
+        static BeanPostProcessor queryCapturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new CapturingDataSource(dataSource) : bean;
+                }
+            };
+        }
+
+        private static Connection capturing(Connection connection) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                    return capturing(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement capturing(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.equals("setNull")) {
+                    parameters.put((Integer) args[0], new SqlParameterValue((Integer) args[1], null));
+                } else if (name.startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer index) {
+                    parameters.put(index, args[1]);
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                } else if (name.equals("executeQuery") && args == null) {
+                    record(sql, parameters);
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(QueryPlanTest.class.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private static class CapturingDataSource extends DelegatingDataSource {
+            CapturingDataSource(DataSource target) {
+                super(target);
+            }
+
+            @Override
+            public Connection getConnection() throws SQLException {
+                return capturing(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return capturing(super.getConnection(username, password));
+            }
+        }
+    }
+}
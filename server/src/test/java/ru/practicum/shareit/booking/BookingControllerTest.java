@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -12,6 +14,8 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingDtoPage;
+import ru.practicum.shareit.exception.BookingOverlapException;
 import ru.practicum.shareit.exception.NotFoundCustomException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -27,8 +31,11 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -111,6 +118,23 @@ class BookingControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void shouldReturnConflictIfPeriodIsAlreadyBooked() throws Exception {
+        Mockito
+                .when(bookingService.create(anyLong(), any()))
+                .thenThrow(new BookingOverlapException("Item is already booked for this time"));
+
+        mvc.perform(
+                        post("/bookings")
+                                .header("X-Sharer-User-Id", userOleg.getId())
+                                .content(mapper.writeValueAsString(inputBookingDto))
+                                .characterEncoding(StandardCharsets.UTF_8)
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Item is already booked for this time")));
+    }
+
     @Test
     void shouldForbiddenCreate() throws Exception {
         Mockito
@@ -254,4 +278,73 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.[0].booker.name", is(bookingDto.getBooker().getName())))
                 .andExpect(jsonPath("$.[0].status", is(bookingDto.getStatus().name())));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnByOwnerPageWithNextCursor() throws Exception {
+        Mockito
+                .when(bookingService.getPageByOwner(anyLong(), any(), anyString(), anyInt()))
+                .thenReturn(new BookingDtoPage(List.of(bookingDto), "next"));
+
+        mvc.perform(
+                        get("/bookings/owner")
+                                .header("X-Sharer-User-Id", userOleg.getId())
+                                .param("state", "FUTURE")
+                                .param("cursor", "")
+                                .param("size", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$.[0].id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$.[0].item.name", is(bookingDto.getItem().getName())));
+
+        Mockito.verify(bookingService, Mockito.times(1))
+                .getPageByOwner(1L, State.FUTURE, "", 1);
+        Mockito.verify(bookingService, Mockito.never())
+                .getAllByOwner(anyLong(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldOmitNextCursorOnLastPage() throws Exception {
+        Mockito
+                .when(bookingService.getPageByUser(anyLong(), any(), anyString(), anyInt()))
+                .thenReturn(new BookingDtoPage(List.of(bookingDto), null));
+
+        mvc.perform(
+                        get("/bookings")
+                                .header("X-Sharer-User-Id", userOleg.getId())
+                                .param("cursor", "abc")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.[0].id", is(bookingDto.getId()), Long.class));
+
+        Mockito.verify(bookingService, Mockito.times(1))
+                .getPageByUser(1L, State.ALL, "abc", 100);
+    }
+
+    @Test
+    void shouldReturnByOwnerAsSmile() throws Exception {
+        MediaType smile = new MediaType("application", "x-jackson-smile");
+        Mockito
+                .when(bookingService.getAllByOwner(anyLong(), any(), anyInt(), anyInt()))
+                .thenReturn(List.of(bookingDto));
+
+        byte[] body = mvc.perform(
+                        get("/bookings/owner")
+                                .header("X-Sharer-User-Id", userOleg.getId())
+                                .param("state", "ALL")
+                                .accept(smile)
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(smile))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        JsonNode booking = new ObjectMapper(new SmileFactory()).readTree(body).get(0);
+        assertEquals(bookingDto.getId(), booking.get("id").asLong());
+        assertEquals(startDate, booking.get("start").asText());
+        assertEquals(bookingDto.getBooker().getName(), booking.get("booker").get("name").asText());
+        assertEquals(bookingDto.getStatus().name(), booking.get("status").asText());
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.dto.ItemDtoIdAndName;
+import ru.practicum.shareit.user.dto.UserDtoIdAndName;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against Smile for {@code BookingDtoOutput} pages: encoding on the server and decoding into the generic
+ * tree the gateway works with. Both mappers come from Boot's builder, as in {@code WebConfig}. Payload sizes
+ * are printed once per trial; run with {@code -Djmh.args="WireFormatBenchmark -prof gc"} for allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private static final Status[] STATUSES = Status.values();
+
+    @Param({"10", "100", "1000"})
+    public int bookings;
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper smile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+    private List<BookingDtoOutput> page;
+    private byte[] jsonPage;
+    private byte[] smilePage;
+
+    @Setup
+    public void setUp() throws IOException {
+        page = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            page.add(new BookingDtoOutput((long) i + 1, START.plusHours(i * 7L), START.plusHours(i * 7L + 48),
+                    new ItemDtoIdAndName((long) i % 50 + 1, "Cordless drill with two batteries #" + i % 50),
+                    new UserDtoIdAndName((long) i % 20 + 1, "Booker Number " + i % 20),
+                    STATUSES[i % STATUSES.length]));
+        }
+        jsonPage = json.writeValueAsBytes(page);
+        smilePage = smile.writeValueAsBytes(page);
+        System.out.printf("%n%d bookings: JSON %d bytes, Smile %d bytes (%.0f%%)%n", bookings, jsonPage.length,
+                smilePage.length, 100.0 * smilePage.length / jsonPage.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return json.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() throws IOException {
+        return smile.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public Object decodeJson() throws IOException {
+        return json.readValue(jsonPage, Object.class);
+    }
+
+    @Benchmark
+    public Object decodeSmile() throws IOException {
+        return smile.readValue(smilePage, Object.class);
+    }
+}
@@ -4,16 +4,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.ItemBookingSlot;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.Cursor;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import jakarta.persistence.EntityManager;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -53,84 +56,87 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findBookingsByBooker_Id_ShouldReturnBookings() {
-        List<Booking> bookings = bookingRepository.findBookingsByBooker_Id(
-                user1.getId(),
-                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"))
-        );
+    void findPage_ShouldReturnBookerBookings() {
+        List<BookingDtoOutput> bookings = bookingRepository.findPage(
+                query(BookingQuery.Party.BOOKER, user1, State.ALL));
+
         assertThat(bookings).hasSize(3);
+        assertThat(bookings.getFirst().getItem().getName()).isEqualTo("Item2");
+        assertThat(bookings.getFirst().getBooker().getName()).isEqualTo("User1");
     }
 
     @Test
-    void findBookingsByBooker_IdAndEndBefore_ShouldReturnPastBookings() {
-        List<Booking> bookings = bookingRepository.findBookingsByBooker_IdAndEndBefore(
-                user1.getId(),
-                LocalDateTime.now(),
-                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "end"))
-        );
+    void findPage_ShouldReturnPastBookings() {
+        List<BookingDtoOutput> bookings = bookingRepository.findPage(
+                query(BookingQuery.Party.BOOKER, user1, State.PAST));
         assertThat(bookings).hasSize(2); // booking1 и booking3
     }
 
     @Test
-    void findBookingsByBooker_IdAndStartAfter_ShouldReturnFutureBookings() {
-        List<Booking> bookings = bookingRepository.findBookingsByBooker_IdAndStartAfter(
-                user1.getId(),
-                LocalDateTime.now(),
-                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "start"))
-        );
+    void findPage_ShouldReturnFutureBookings() {
+        List<BookingDtoOutput> bookings = bookingRepository.findPage(
+                query(BookingQuery.Party.BOOKER, user1, State.FUTURE));
         assertThat(bookings).hasSize(1); // booking2
     }
 
     @Test
-    void findBookingsByBooker_IdAndStatus_ShouldReturnStatusFiltered() {
-        List<Booking> waitingBookings = bookingRepository.findBookingsByBooker_IdAndStatus(
-                user1.getId(),
-                Status.WAITING,
-                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"))
-        );
+    void findPage_ShouldReturnStatusFiltered() {
+        List<BookingDtoOutput> waitingBookings = bookingRepository.findPage(
+                query(BookingQuery.Party.BOOKER, user1, State.WAITING));
         assertThat(waitingBookings).hasSize(1);
 
-        List<Booking> rejectedBookings = bookingRepository.findBookingsByBooker_IdAndStatus(
-                user1.getId(),
-                Status.REJECTED,
-                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"))
-        );
+        List<BookingDtoOutput> rejectedBookings = bookingRepository.findPage(
+                query(BookingQuery.Party.BOOKER, user1, State.REJECTED));
         assertThat(rejectedBookings).hasSize(1);
-
-        List<Booking> approvedBookings = bookingRepository.findBookingsByBooker_IdAndStatus(
-                user1.getId(),
-                Status.APPROVED,
-                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"))
-        );
-        assertThat(approvedBookings).hasSize(1);
     }
 
     @Test
-    void findBookingsByItem_Owner_Id_ShouldReturnOwnerItems() {
-        List<Booking> bookings = bookingRepository.findBookingsByItem_Owner_Id(
-                user2.getId(),
-                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"))
-        );
-        assertThat(bookings).hasSize(3);
+    void findPage_ShouldReturnOwnerBookings() {
+        assertThat(bookingRepository.findPage(query(BookingQuery.Party.OWNER, user2, State.ALL))).hasSize(3);
+        assertThat(bookingRepository.findPage(query(BookingQuery.Party.OWNER, user2, State.PAST))).hasSize(2);
+        assertThat(bookingRepository.findPage(query(BookingQuery.Party.OWNER, user2, State.FUTURE))).hasSize(1);
+        assertThat(bookingRepository.findPage(query(BookingQuery.Party.OWNER, user1, State.ALL))).isEmpty();
     }
 
     @Test
-    void findBookingsByItem_Owner_IdAndEndBefore_ShouldReturnPastOwnerItems() {
-        List<Booking> bookings = bookingRepository.findBookingsByItem_Owner_IdAndEndBefore(
-                user2.getId(),
-                LocalDateTime.now(),
-                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "end"))
-        );
-        assertThat(bookings).hasSize(2); // бронирования с end в прошлом (booking1 и booking3)
+    void findPage_ShouldContinueAfterKeyset() {
+        List<BookingDtoOutput> first = bookingRepository.findPage(new BookingQuery(BookingQuery.Party.BOOKER,
+                user1.getId(), State.ALL, LocalDateTime.now(), null, 0, 2));
+        BookingDtoOutput last = first.getLast();
+        List<BookingDtoOutput> rest = bookingRepository.findPage(new BookingQuery(BookingQuery.Party.BOOKER,
+                user1.getId(), State.ALL, LocalDateTime.now(), new Cursor.Position(last.getStart(), last.getId()),
+                0, 2));
+
+        assertThat(first).extracting(BookingDtoOutput::getStart).isSortedAccordingTo(Comparator.reverseOrder());
+        assertThat(rest).hasSize(1);
+        assertThat(rest.getFirst().getStart()).isBefore(last.getStart());
     }
 
     @Test
-    void findBookingsByItem_Owner_IdAndStartAfter_ShouldReturnUpcomingOwnerItems() {
-        List<Booking> bookings = bookingRepository.findBookingsByItem_Owner_IdAndStartAfter(
-                user2.getId(),
-                LocalDateTime.now(),
-                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "start"))
-        );
-        assertThat(bookings).hasSize(1); // бронирование с start в будущем (booking2)
+    void findLastAndNextBookings_ShouldReturnOneLastAndOneNextPerItem() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking olderPast = new Booking(null, now.minusDays(9), now.minusDays(7), item1, user2, Status.APPROVED);
+        Booking farFuture = new Booking(null, now.plusDays(10), now.plusDays(12), item1, user2, Status.APPROVED);
+        Booking nearFuture = new Booking(null, now.plusDays(2), now.plusDays(4), item1, user1, Status.APPROVED);
+        entityManager.persist(olderPast);
+        entityManager.persist(farFuture);
+        entityManager.persist(nearFuture);
+        entityManager.flush();
+
+        List<ItemBookingSlot> slots = bookingRepository.findLastAndNextBookings(
+                List.of(item1.getId(), item2.getId()), now);
+
+        assertThat(slots).hasSize(2); // item2 has no approved bookings
+        assertThat(slots).allMatch(slot -> slot.getItemId().equals(item1.getId()));
+        assertThat(slots).filteredOn(slot -> ItemBookingSlot.LAST.equals(slot.getKind()))
+                .singleElement()
+                .satisfies(slot -> assertThat(slot.getBookerId()).isEqualTo(user1.getId()));
+        assertThat(slots).filteredOn(slot -> ItemBookingSlot.NEXT.equals(slot.getKind()))
+                .singleElement()
+                .satisfies(slot -> assertThat(slot.getId()).isEqualTo(nearFuture.getId()));
+    }
+
+    private static BookingQuery query(BookingQuery.Party party, User user, State state) {
+        return new BookingQuery(party, user.getId(), state, LocalDateTime.now(), null, 0, 10);
     }
 }
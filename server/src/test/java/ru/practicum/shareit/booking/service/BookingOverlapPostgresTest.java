@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.PostgresContainerConfiguration;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.exception.BookingOverlapException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hundreds of bookers of one item released at the same moment. Overlaps are decided by the exclusion
+ * constraint in {@code indexes-postgresql.sql}, which H2 does not have, so this runs on PostgreSQL.
+ */
+@SpringBootTest
+@ActiveProfiles("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@Import(PostgresContainerConfiguration.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingOverlapPostgresTest {
+    private static final int BOOKERS = 300;
+    private static final LocalDateTime START = LocalDateTime.now().plusYears(1).withNano(0);
+
+    private final BookingService bookingService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private long itemId;
+    private final List<Long> bookerIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        long ownerId = insertUser("owner");
+        itemId = jdbcTemplate.queryForObject("insert into items (name, description, is_available, owner_id) " +
+                "values ('Drill', 'Cordless', true, ?) returning id", Long.class, ownerId);
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerIds.add(insertUser("booker" + i));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void create_shouldAcceptExactlyOneOfConcurrentOverlappingBookings() throws Exception {
+        List<Outcome> outcomes = bookConcurrently(i -> new BookingDtoInput(START.plusHours(i % 24),
+                START.plusDays(2), itemId));
+
+        assertThat(outcomes).filteredOn(Outcome.BOOKED::equals).hasSize(1);
+        assertThat(outcomes).filteredOn(Outcome.OVERLAP::equals).hasSize(BOOKERS - 1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from bookings where item_id = ?",
+                Long.class, itemId)).isEqualTo(1L);
+    }
+
+    @Test
+    void create_shouldAcceptAllConcurrentDisjointBookings() throws Exception {
+        List<Outcome> outcomes = bookConcurrently(i -> new BookingDtoInput(START.plusDays(i),
+                START.plusDays(i + 1), itemId));
+
+        assertThat(outcomes).containsOnly(Outcome.BOOKED).hasSize(BOOKERS);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from bookings where item_id = ?",
+                Long.class, itemId)).isEqualTo((long) BOOKERS);
+    }
+
+    /**
+     * Every booker waits on the same latch, so all inserts reach the database together.
+     */
+    private List<Outcome> bookConcurrently(IntFunction<BookingDtoInput> booking) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Outcome>> futures = new ArrayList<>(BOOKERS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < BOOKERS; i++) {
+                long bookerId = bookerIds.get(i);
+                BookingDtoInput input = booking.apply(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.create(bookerId, input);
+                        return Outcome.BOOKED;
+                    } catch (BookingOverlapException e) {
+                        return Outcome.OVERLAP;
+                    }
+                }));
+            }
+            start.countDown();
+        }
+        List<Outcome> outcomes = new ArrayList<>(BOOKERS);
+        for (Future<Outcome> future : futures) {
+            outcomes.add(future.get());
+        }
+        return outcomes;
+    }
+
+    private long insertUser(String name) {
+        return jdbcTemplate.queryForObject("insert into users (name, email) values (?, ?) returning id",
+                Long.class, name, name + "@example.com");
+    }
+
+    private enum Outcome {
+        BOOKED, OVERLAP
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.item.dto.ItemDtoInput;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "shareit.export.fetch-size=2")
+@Import(NdjsonExporter.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class NdjsonExporterTest {
+
+    @Autowired
+    private NdjsonExporter exporter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void export_shouldWriteOneJsonObjectPerLine() throws Exception {
+        User owner = new User(null, "Owner", "owner@example.com");
+        User other = new User(null, "Other", "other@example.com");
+        entityManager.persist(owner);
+        entityManager.persist(other);
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(new Item(null, "Item " + i, "Description " + i, i % 2 == 0, owner, null));
+        }
+        entityManager.persist(new Item(null, "Foreign", "Not exported", true, other, null));
+        entityManager.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export("select id, name, description, is_available from items where owner_id = ? order by id",
+                (rs, rowNum) -> new ItemDtoInput(rs.getLong("id"), rs.getString("name"),
+                        rs.getString("description"), rs.getBoolean("is_available"), null),
+                owner.getId()).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(5);
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("\n");
+        ItemDtoInput first = objectMapper.readValue(lines[0], ItemDtoInput.class);
+        ItemDtoInput last = objectMapper.readValue(lines[4], ItemDtoInput.class);
+        assertThat(first.getName()).isEqualTo("Item 0");
+        assertThat(last.getName()).isEqualTo("Item 4");
+        assertThat(last.getAvailable()).isTrue();
+    }
+}
@@ -8,26 +8,38 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
 import ru.practicum.shareit.booking.dto.BookingIdAndBookerId;
 import ru.practicum.shareit.item.comments.CommentDto;
+import ru.practicum.shareit.item.comments.CommentDtoPage;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequest;
+import ru.practicum.shareit.item.dto.ItemBulkError;
+import ru.practicum.shareit.item.dto.ItemBulkResult;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBookingAndComments;
 import ru.practicum.shareit.item.dto.ItemDtoIdAndName;
 import ru.practicum.shareit.item.dto.ItemDtoInput;
+import ru.practicum.shareit.item.dto.ItemDtoPage;
+import ru.practicum.shareit.item.dto.ItemFreeSlot;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoIdAndName;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -67,7 +79,7 @@ class ItemControllerTest {
             itemDtoDryer.getName(),
             itemDtoDryer.getDescription(),
             itemDtoDryer.getAvailable(),
-            lastBookingShort, nextBookingShort, List.of(comment));
+            lastBookingShort, nextBookingShort, List.of(comment), 1L);
     private final String commentCreated = "2023-01-20T12:10:00";
 
     @Autowired
@@ -156,6 +168,7 @@ class ItemControllerTest {
                         )
                 )
                 .andExpect(jsonPath("$.comments[0].created", is(commentCreated)))
+                .andExpect(jsonPath("$.commentCount", is(1L), Long.class))
 
 
                 .andExpect(
@@ -329,4 +342,183 @@ class ItemControllerTest {
         Mockito.verify(itemService, Mockito.times(1))
                 .getByText("table", 0, 1);
     }
+
+    @Test
+    void suggest_shouldCapLimit() throws Exception {
+        Mockito
+                .when(itemService.suggest(anyString(), anyInt()))
+                .thenReturn(List.of("dryer", "drill"));
+
+        mvc.perform(
+                        get("/items/suggest")
+                                .param("prefix", "dr")
+                                .param("limit", "1000")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0]", is("dryer")))
+                .andExpect(jsonPath("$.[1]", is("drill")));
+
+        Mockito.verify(itemService, Mockito.times(1))
+                .suggest("dr", 50);
+    }
+
+    @Test
+    void getAllBy_shouldReturnNextCursorHeader() throws Exception {
+        Mockito
+                .when(itemService.getAllByCursor(anyLong(), anyString(), anyInt()))
+                .thenReturn(new ItemDtoPage(List.of(itemWithCommentsAndBookings), "aWQ6Mw"));
+
+        mvc.perform(
+                        get("/items")
+                                .header("X-Sharer-User-Id", userDtoOleg.getId())
+                                .param("cursor", "")
+                                .param("size", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "aWQ6Mw"))
+                .andExpect(jsonPath("$.[0].id", is(itemWithCommentsAndBookings.getId()), Long.class));
+
+        Mockito.verify(itemService, Mockito.times(1))
+                .getAllByCursor(1L, "", 1);
+    }
+
+    @Test
+    void getAllBy_shouldOmitCursorHeaderOnLastPage() throws Exception {
+        Mockito
+                .when(itemService.getAllByCursor(anyLong(), anyString(), anyInt()))
+                .thenReturn(new ItemDtoPage(List.of(), null));
+
+        mvc.perform(
+                        get("/items")
+                                .header("X-Sharer-User-Id", userDtoOleg.getId())
+                                .param("cursor", "aWQ6Mw")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.length()", is(0)));
+    }
+
+    @Test
+    void getAvailability_shouldReturnFreeSlots() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        Mockito
+                .when(itemService.getAvailability(anyLong(), any(), any()))
+                .thenReturn(List.of(new ItemFreeSlot(from, from.plusDays(2)), new ItemFreeSlot(from.plusDays(5), to)));
+
+        mvc.perform(
+                        get("/items/{itemId}/availability", itemDtoDryer.getId())
+                                .param("from", "2030-01-01T00:00:00")
+                                .param("to", "2030-01-11T00:00:00")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$.[0].end", is("2030-01-03T00:00:00")))
+                .andExpect(jsonPath("$.[1].start", is("2030-01-06T00:00:00")));
+
+        Mockito.verify(itemService, Mockito.times(1))
+                .getAvailability(3L, from, to);
+    }
+
+    @Test
+    void getFreeItems_shouldReturnFreeIds() throws Exception {
+        ItemAvailabilityRequest request = new ItemAvailabilityRequest(List.of(1L, 2L, 3L),
+                LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2030, 1, 3, 0, 0));
+        Mockito
+                .when(itemService.getFreeItems(any()))
+                .thenReturn(List.of(1L, 3L));
+
+        mvc.perform(
+                        post("/items/availability")
+                                .content(mapper.writeValueAsString(request))
+                                .characterEncoding(StandardCharsets.UTF_8)
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$.[1]", is(3L), Long.class));
+
+        Mockito.verify(itemService, Mockito.times(1))
+                .getFreeItems(request);
+    }
+
+    @Test
+    void getComments_shouldReturnNextCursorHeader() throws Exception {
+        Mockito
+                .when(itemService.getComments(anyLong(), anyString(), anyInt()))
+                .thenReturn(new CommentDtoPage(List.of(comment), "Y3JlYXRlZA"));
+
+        mvc.perform(
+                        get("/items/{itemId}/comments", itemDtoDryer.getId())
+                                .param("size", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "Y3JlYXRlZA"))
+                .andExpect(jsonPath("$.[0].id", is(comment.getId()), Long.class))
+                .andExpect(jsonPath("$.[0].created", is(commentCreated)));
+
+        Mockito.verify(itemService, Mockito.times(1))
+                .getComments(3L, "", 1);
+    }
+
+    @Test
+    void createAllFromStream_shouldPassMalformedLinesAsNullRows() throws Exception {
+        Mockito
+                .when(itemService.createAll(anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    Iterator<ItemDtoInput> rows = invocation.getArgument(1);
+                    List<ItemDtoInput> read = new ArrayList<>();
+                    rows.forEachRemaining(read::add);
+                    return new ItemBulkResult(1, List.of(10L),
+                            List.of(new ItemBulkError(1, read.get(1) == null ? "Malformed item" : "?")));
+                });
+        String body = mapper.writeValueAsString(itemDtoInputDryer) + "\n\n{not json\n";
+
+        mvc.perform(
+                        post("/items/bulk")
+                                .header("X-Sharer-User-Id", userDtoIrina.getId())
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(body)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.errors[0].index", is(1)))
+                .andExpect(jsonPath("$.errors[0].error", is("Malformed item")));
+    }
+
+    @Test
+    void createAll_shouldAcceptJsonArray() throws Exception {
+        Mockito
+                .when(itemService.createAll(anyLong(), any()))
+                .thenReturn(new ItemBulkResult(2, List.of(10L, 11L), List.of()));
+
+        mvc.perform(
+                        post("/items/bulk")
+                                .header("X-Sharer-User-Id", userDtoIrina.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(List.of(itemDtoInputDryer, itemDtoInputDryer)))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.ids[1]", is(11)));
+    }
+
+    @Test
+    void export_shouldStreamNdjson() throws Exception {
+        Mockito
+                .when(itemService.export(anyLong()))
+                .thenReturn(out -> out.write("{\"id\":3}\n{\"id\":5}\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(
+                        get("/items/export")
+                                .header("X-Sharer-User-Id", userDtoIrina.getId())
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string("{\"id\":3}\n{\"id\":5}\n"));
+    }
 }
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item.availability;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemFreeSlot;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability lookups of one item with many bookings: free slots in a week-long window through
+ * {@link ItemAvailabilityIndex}, the yes/no check on the loaded intervals, and the copy made when a booking is
+ * added. Bookings last a day and start every 36 hours; windows fall at random within the booked period.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemAvailabilityIndexBenchmark {
+    private static final long ITEM = 1L;
+    private static final LocalDateTime FIRST = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final long STEP_HOURS = 36;
+    private static final long MICROS_PER_HOUR = TimeUnit.HOURS.toMicros(1);
+    private static final Duration WINDOW = Duration.ofDays(7);
+
+    @Param({"10000", "100000"})
+    public int bookings;
+
+    private ItemAvailabilityIndex index;
+    private BookingIntervals intervals;
+    private long firstMicros;
+
+    @Setup
+    public void setUp() {
+        List<BookingInterval> rows = new ArrayList<>(bookings);
+        long[] ids = new long[bookings];
+        long[] starts = new long[bookings];
+        long[] ends = new long[bookings];
+        firstMicros = FIRST.toEpochSecond(ZoneOffset.UTC) * 1_000_000;
+        for (int i = 0; i < bookings; i++) {
+            LocalDateTime start = FIRST.plusHours(i * STEP_HOURS);
+            rows.add(new BookingInterval((long) i + 1, start, start.plusDays(1)));
+            ids[i] = i + 1;
+            starts[i] = firstMicros + i * STEP_HOURS * MICROS_PER_HOUR;
+            ends[i] = starts[i] + 24 * MICROS_PER_HOUR;
+        }
+        BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+        Mockito.when(bookingRepository.findIntervalsByItemId(ITEM, ItemAvailabilityIndex.ACTIVE)).thenReturn(rows);
+        index = new ItemAvailabilityIndex(bookingRepository, true, 10_000_000, Duration.ofHours(1));
+        index.freeSlots(ITEM, FIRST, FIRST.plusDays(1));
+        intervals = BookingIntervals.of(ids, starts, ends);
+    }
+
+    @Benchmark
+    public List<ItemFreeSlot> freeSlots() {
+        LocalDateTime from = FIRST.plusHours(randomHour());
+        return index.freeSlots(ITEM, from, from.plus(WINDOW));
+    }
+
+    @Benchmark
+    public boolean isFree() {
+        long from = firstMicros + randomHour() * MICROS_PER_HOUR;
+        return intervals.isFree(from, from + WINDOW.toHours() * MICROS_PER_HOUR);
+    }
+
+    @Benchmark
+    public BookingIntervals addBooking() {
+        long start = firstMicros + randomHour() * MICROS_PER_HOUR;
+        return intervals.with(bookings + 1L, start, start + MICROS_PER_HOUR);
+    }
+
+    private long randomHour() {
+        return ThreadLocalRandom.current().nextLong(bookings * STEP_HOURS);
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemFreeSlot;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityIndexTest {
+    private static final long ITEM = 3L;
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    private BookingRepository mockBookingRepository;
+    private ItemAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemAvailabilityIndex(mockBookingRepository, true, 1000, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void freeSlots_shouldReturnGapsBetweenOverlappingAndNestedBookings() {
+        Mockito
+                .when(mockBookingRepository.findIntervalsByItemId(ITEM, ItemAvailabilityIndex.ACTIVE))
+                .thenReturn(List.of(
+                        new BookingInterval(1L, hour(2), hour(6)),
+                        new BookingInterval(2L, hour(3), hour(4)),
+                        new BookingInterval(3L, hour(5), hour(8)),
+                        new BookingInterval(4L, hour(10), hour(12))));
+
+        List<ItemFreeSlot> slots = index.freeSlots(ITEM, hour(0), hour(11));
+
+        assertEquals(List.of(slot(0, 2), slot(8, 10)), slots);
+        assertEquals(List.of(slot(8, 10), slot(12, 14)), index.freeSlots(ITEM, hour(7), hour(14)));
+        Mockito.verify(mockBookingRepository, Mockito.times(1))
+                .findIntervalsByItemId(ITEM, ItemAvailabilityIndex.ACTIVE);
+    }
+
+    @Test
+    void bookingChanged_shouldOccupyAndFreePeriodOfLoadedItem() {
+        Mockito
+                .when(mockBookingRepository.findIntervalsByItemId(ITEM, ItemAvailabilityIndex.ACTIVE))
+                .thenReturn(List.of());
+        assertEquals(List.of(slot(0, 10)), index.freeSlots(ITEM, hour(0), hour(10)));
+
+        index.bookingChanged(booking(7L, hour(4), hour(6), Status.WAITING));
+        assertEquals(List.of(slot(0, 4), slot(6, 10)), index.freeSlots(ITEM, hour(0), hour(10)));
+
+        index.bookingChanged(booking(7L, hour(4), hour(6), Status.REJECTED));
+        assertEquals(List.of(slot(0, 10)), index.freeSlots(ITEM, hour(0), hour(10)));
+    }
+
+    @Test
+    void freeSlots_shouldMatchNaiveScanOnRandomBookings() {
+        Random random = new Random(42);
+        int count = 2_000;
+        long[] ids = new long[count];
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+            starts[i] = random.nextInt(100_000);
+            ends[i] = starts[i] + 1 + random.nextInt(200);
+        }
+        BookingIntervals intervals = BookingIntervals.of(ids.clone(), starts.clone(), ends.clone());
+
+        for (int query = 0; query < 500; query++) {
+            long from = random.nextInt(100_000);
+            long to = from + 1 + random.nextInt(2_000);
+            long[] expected = naiveFreeSlots(starts, ends, from, to);
+            assertArrayEquals(expected, intervals.freeSlots(from, to));
+            assertEquals(expected.length == 2 && expected[0] == from && expected[1] == to,
+                    intervals.isFree(from, to));
+        }
+        assertTrue(intervals.without(0L).size() < intervals.size());
+    }
+
+    private static long[] naiveFreeSlots(long[] starts, long[] ends, long from, long to) {
+        boolean[] busy = new boolean[(int) (to - from)];
+        for (int i = 0; i < starts.length; i++) {
+            for (long t = Math.max(starts[i], from); t < Math.min(ends[i], to); t++) {
+                busy[(int) (t - from)] = true;
+            }
+        }
+        List<Long> slots = new ArrayList<>();
+        for (int t = 0; t < busy.length; t++) {
+            if (!busy[t] && (t == 0 || busy[t - 1])) {
+                slots.add(from + t);
+            }
+            if (!busy[t] && (t == busy.length - 1 || busy[t + 1])) {
+                slots.add(from + t + 1);
+            }
+        }
+        return slots.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static Booking booking(long id, LocalDateTime start, LocalDateTime end, Status status) {
+        Item item = new Item(ITEM, "Dryer", "For curly hair", true, null, null);
+        return new Booking(id, start, end, item, null, status);
+    }
+
+    private static ItemFreeSlot slot(int fromHour, int toHour) {
+        return new ItemFreeSlot(hour(fromHour), hour(toHour));
+    }
+
+    private static LocalDateTime hour(int hour) {
+        return DAY.plusHours(hour);
+    }
+}
@@ -4,10 +4,13 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlGroup;
 import ru.practicum.shareit.item.comments.Comment;
+import ru.practicum.shareit.item.comments.CommentDto;
 import ru.practicum.shareit.item.comments.CommentRepository;
+import ru.practicum.shareit.item.comments.ItemCommentRow;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -68,4 +71,35 @@ class CommentRepositoryTest {
         assertEquals(result.getFirst().getAuthor().getName(), comment.getAuthor().getName());
         assertEquals(result.getFirst().getCreated(), comment.getCreated());
     }
+
+    @Test
+    @SqlGroup({
+            @Sql(value = {"before.sql", "before-more-comments.sql"}, executionPhase = BEFORE_TEST_METHOD),
+            @Sql(value = {"after-more-comments.sql", "after.sql"}, executionPhase = AFTER_TEST_METHOD)
+    })
+    void findNewestByItemIds_shouldReturnNewestCommentsWithCount() {
+        List<ItemCommentRow> result = commentRepository.findNewestByItemIds(itemIds, 2);
+
+        assertEquals(List.of(7L, 6L), result.stream().map(ItemCommentRow::getId).toList());
+        assertThat(result).allSatisfy(row -> {
+            assertEquals(dryer.getId(), row.getItemId());
+            assertEquals(4L, row.getCommentCount());
+        });
+        assertEquals(userIrina.getName(), result.getFirst().getAuthorName());
+    }
+
+    @Test
+    @SqlGroup({
+            @Sql(value = {"before.sql", "before-more-comments.sql"}, executionPhase = BEFORE_TEST_METHOD),
+            @Sql(value = {"after-more-comments.sql", "after.sql"}, executionPhase = AFTER_TEST_METHOD)
+    })
+    void findPageByItemId_shouldPageNewestFirstByCreatedAndId() {
+        List<CommentDto> first = commentRepository.findPageByItemId(dryer.getId(), PageRequest.of(0, 2));
+        CommentDto last = first.getLast();
+        List<CommentDto> second = commentRepository.findPageByItemIdBefore(dryer.getId(), last.getCreated(),
+                last.getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(7L, 6L), first.stream().map(CommentDto::getId).toList());
+        assertEquals(List.of(5L, 4L), second.stream().map(CommentDto::getId).toList());
+    }
 }
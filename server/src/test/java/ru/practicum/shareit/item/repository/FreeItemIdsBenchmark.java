@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Which of a catalog page of items are free for a window: the one set-based anti-join of
+ * {@link ItemRepository#findFreeItemIds} against the same query issued once per item, as a client would without
+ * the batch endpoint. Runs on the test profile's H2 with the in-memory availability index off, so every call
+ * reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FreeItemIdsBenchmark {
+    private static final int ITEMS = 10_000;
+    private static final LocalDateTime FIRST = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Param({"100"})
+    public int pageSize;
+
+    @Param({"10", "100"})
+    public int bookingsPerItem;
+
+    private ConfigurableApplicationContext server;
+    private ItemRepository itemRepository;
+    private List<Long> page;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @Setup
+    public void setUp() {
+        server = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("shareit.availability.enabled=false")
+                .run();
+        itemRepository = server.getBean(ItemRepository.class);
+        JdbcTemplate jdbcTemplate = server.getBean(JdbcTemplate.class);
+
+        long ownerId = insertUser(jdbcTemplate, "owner");
+        long bookerId = insertUser(jdbcTemplate, "booker");
+        List<Object[]> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{"Item " + i, "Description " + i, ownerId});
+        }
+        jdbcTemplate.batchUpdate("insert into items (name, description, is_available, owner_id) " +
+                "values (?, ?, true, ?)", items);
+        List<Long> itemIds = jdbcTemplate.queryForList("select id from items order by id", Long.class);
+
+        // Each item is booked for three days out of every ten, shifted by item, so six in ten items on a page
+        // are free in a two-day window.
+        List<Object[]> bookings = new ArrayList<>(ITEMS * bookingsPerItem);
+        for (int i = 0; i < itemIds.size(); i++) {
+            for (int b = 0; b < bookingsPerItem; b++) {
+                LocalDateTime start = FIRST.plusDays(b * 10L + i % 10);
+                bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(3)),
+                        itemIds.get(i), bookerId});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, 'APPROVED')", bookings);
+
+        page = itemIds.subList(ITEMS / 2, ITEMS / 2 + pageSize);
+        from = FIRST.plusDays(bookingsPerItem * 5L);
+        to = from.plusDays(2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<Long> setBased() {
+        return itemRepository.findFreeItemIds(page, from, to);
+    }
+
+    @Benchmark
+    public List<Long> perItem() {
+        List<Long> free = new ArrayList<>();
+        for (Long itemId : page) {
+            free.addAll(itemRepository.findFreeItemIds(List.of(itemId), from, to));
+        }
+        return free;
+    }
+
+    private static long insertUser(JdbcTemplate jdbcTemplate, String name) {
+        String email = name + "@example.com";
+        jdbcTemplate.update("insert into users (name, email) values (?, ?)", name, email);
+        return jdbcTemplate.queryForObject("select id from users where email = ?", Long.class, email);
+    }
+}
@@ -5,12 +5,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchDocument;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -22,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 class ItemRepositoryTest {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
 
     @BeforeEach
     void cleanDatabase() {
@@ -44,4 +51,40 @@ class ItemRepositoryTest {
         assertEquals(item.getName(), result.getFirst().getName());
         assertEquals(item.getAvailable(), result.getFirst().getAvailable());
     }
+
+    @Test
+    void findSearchDocuments_shouldReturnBatchAfterId() {
+        User userOleg = userRepository.save(new User(null, "nam", "man@yandex.ru"));
+        Item first = itemRepository.save(new Item(null, "playstation", "For real man", true, userOleg, null));
+        Item second = itemRepository.save(new Item(null, "dryer", "For curly hair", false, userOleg, null));
+
+        List<ItemSearchDocument> result = itemRepository.findSearchDocuments(first.getId(), PageRequest.of(0, 10));
+
+        assertEquals(1, result.size());
+        assertEquals(second.getId(), result.getFirst().getId());
+        assertEquals(second.getName(), result.getFirst().getName());
+        assertEquals(second.getDescription(), result.getFirst().getDescription());
+        assertFalse(result.getFirst().getAvailable());
+    }
+
+    @Test
+    void findFreeItemIds_shouldSkipUnavailableItemsAndActiveOverlappingBookings() {
+        User owner = userRepository.save(new User(null, "nam", "man@yandex.ru"));
+        User booker = userRepository.save(new User(null, "booker", "booker@yandex.ru"));
+        Item approved = itemRepository.save(new Item(null, "drill", "Cordless", true, owner, null));
+        Item rejected = itemRepository.save(new Item(null, "dryer", "For curly hair", true, owner, null));
+        Item adjacent = itemRepository.save(new Item(null, "tent", "For two", true, owner, null));
+        Item unavailable = itemRepository.save(new Item(null, "kayak", "Broken", false, owner, null));
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 20, 0, 0);
+        bookingRepository.save(new Booking(null, from.minusDays(1), from.plusDays(1), approved, booker,
+                Status.APPROVED));
+        bookingRepository.save(new Booking(null, from, to, rejected, booker, Status.REJECTED));
+        bookingRepository.save(new Booking(null, from.minusDays(5), from, adjacent, booker, Status.WAITING));
+
+        List<Long> result = itemRepository.findFreeItemIds(
+                List.of(approved.getId(), rejected.getId(), adjacent.getId(), unavailable.getId()), from, to);
+
+        assertEquals(List.of(rejected.getId(), adjacent.getId()), result.stream().sorted().toList());
+    }
 }
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.PostgresContainerConfiguration;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Item search over a million items on PostgreSQL. {@link ItemRepository#searchIndexed} must go through the
+ * trigram indexes and return what {@link ItemRepository#findByText} returns. For a rare word it must beat the
+ * {@code like} scan, which cannot stop early as the word is only in the last rows inserted. For a common word the
+ * scan stops after the first page of matches while the indexed search ranks all of them, so both timings are
+ * only reported.
+ */
+@Slf4j
+@DataJpaTest
+@ActiveProfiles("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PostgresContainerConfiguration.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemSearchPostgresTest {
+    private static final int ITEMS = 1_000_000;
+    private static final int MATCHES = 100;
+    private static final String RARE = "perforator";
+    private static final String COMMON = "drill";
+    private static final int RUNS = 5;
+    private static final PageRequest PAGE = PageRequest.of(0, 20);
+
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        long ownerId = jdbcTemplate.queryForObject(
+                "insert into users (name, email) values ('owner', 'owner@example.com') returning id", Long.class);
+        jdbcTemplate.update("insert into items (name, description, is_available, owner_id) " +
+                "select 'Item ' || g, " +
+                "       (array['Cordless', 'Garden', 'Camping', 'Folding', 'Electric', 'Compact', 'Heavy'])" +
+                "[1 + g % 7] || ' ' || " +
+                "       (array['drill', 'hose', 'tent', 'ladder', 'washer', 'saw', 'kayak', 'grill', 'jack', " +
+                "'sander', 'mixer'])[1 + (g / 7) % 11] || ' for ' || (g % 1000) || ' days', " +
+                "       g % 10 <> 0, ? " +
+                "from generate_series(1, ?) g", ownerId, ITEMS);
+        jdbcTemplate.update("insert into items (name, description, is_available, owner_id) " +
+                "select 'Perforator ' || g, 'Rotary hammer with three modes', true, ? " +
+                "from generate_series(1, ?) g", ownerId, MATCHES);
+        jdbcTemplate.execute("analyze items");
+    }
+
+    @Test
+    void searchIndexed_shouldUseTrigramIndexesAndBeatLikeScanForRareWord() {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain select i.id from items i " +
+                "where i.is_available = true " +
+                "and (lower(i.name) like concat('%', lower(?), '%') " +
+                "or lower(i.description) like concat('%', lower(?), '%'))",
+                String.class, RARE, RARE));
+        assertThat(plan)
+                .contains("BitmapOr", "ix_items_name_trgm", "ix_items_description_trgm")
+                .doesNotContain("Seq Scan");
+
+        assertThat(itemRepository.searchIndexed(RARE, PAGE))
+                .hasSize(20)
+                .allSatisfy(item -> assertThat(item.getName()).startsWith("Perforator"));
+        double indexedMillis = medianMillis(() -> itemRepository.searchIndexed(RARE, PAGE));
+        double scanMillis = medianMillis(() -> itemRepository.findByText(RARE, PAGE));
+        log.info("Search for '{}' over {} items: indexed {} ms, like scan {} ms", RARE, ITEMS + MATCHES,
+                indexedMillis, scanMillis);
+
+        assertThat(indexedMillis).isLessThan(scanMillis);
+    }
+
+    @Test
+    void searchIndexed_shouldNotMatchAcrossNameAndDescription() {
+        // Item 7 is named "Item 7" and described as "Cordless ...".
+        assertThat(itemRepository.searchIndexed("item 7 cordless", PAGE)).isEmpty();
+        assertThat(itemRepository.findByText("item 7 cordless", PAGE)).isEmpty();
+    }
+
+    @Test
+    void searchIndexed_shouldRankAllMatchesOfCommonWord() {
+        assertThat(itemRepository.searchIndexed(COMMON, PAGE))
+                .hasSize(20)
+                .allSatisfy(item -> assertThat(item.getDescription()).contains(COMMON));
+        double indexedMillis = medianMillis(() -> itemRepository.searchIndexed(COMMON, PAGE));
+        double scanMillis = medianMillis(() -> itemRepository.findByText(COMMON, PAGE));
+        log.info("Search for '{}' over {} items: indexed {} ms, like scan {} ms", COMMON, ITEMS + MATCHES,
+                indexedMillis, scanMillis);
+    }
+
+    private static double medianMillis(Supplier<List<Item>> search) {
+        search.get();
+        double[] millis = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            search.get();
+            millis[i] = (System.nanoTime() - started) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+}
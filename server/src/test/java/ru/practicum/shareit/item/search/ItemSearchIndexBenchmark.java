@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * Query latency of {@link ItemSearchIndex} for a common word, a rare word and a query shorter than a trigram,
+ * on a catalog built the way the application does it at startup. The heap taken by the index and the size of
+ * its posting lists are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSearchIndexBenchmark {
+    private static final String[] ADJECTIVES = {"Cordless", "Garden", "Camping", "Folding", "Electric", "Compact",
+            "Heavy"};
+    private static final String[] NOUNS = {"drill", "hose", "tent", "ladder", "washer", "saw", "kayak", "grill",
+            "jack", "sander", "mixer"};
+    private static final int RARE_EVERY = 10_000;
+
+    @Param({"100000", "1000000"})
+    public int items;
+
+    @Param({"drill", "perforator", "sa"})
+    public String text;
+
+    private ItemSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+        Mockito.when(itemRepository.findSearchDocuments(anyLong(), any()))
+                .thenAnswer(invocation -> documents(invocation.getArgument(0),
+                        invocation.<Pageable>getArgument(1).getPageSize()));
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        index = new ItemSearchIndex(itemRepository, true);
+        index.rebuild();
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        index.bindTo(registry);
+        System.out.printf("%n%d items: ~%d MB heap, %.0f trigrams, %.0f MB in posting lists%n", items,
+                (heapAfter - heapBefore) >> 20, registry.get("items.search.index.terms").gauge().value(),
+                registry.get("items.search.index.postings.bytes").gauge().value() / (1 << 20));
+    }
+
+    @Benchmark
+    public List<Long> firstPage() {
+        return index.search(text, 0, 20);
+    }
+
+    @Benchmark
+    public List<Long> fifthPage() {
+        return index.search(text, 80, 20);
+    }
+
+    /**
+     * Same vocabulary as {@code ItemSearchPostgresTest}; every {@value #RARE_EVERY}th item is a perforator.
+     */
+    private List<ItemSearchDocument> documents(long afterId, int size) {
+        List<ItemSearchDocument> page = new ArrayList<>(size);
+        for (long id = afterId + 1; id <= items && page.size() < size; id++) {
+            String name = id % RARE_EVERY == 0 ? "Perforator " + id : "Item " + id;
+            String description = ADJECTIVES[(int) (id % ADJECTIVES.length)] + " "
+                    + NOUNS[(int) (id / ADJECTIVES.length % NOUNS.length)] + " for " + id % 1000 + " days";
+            page.add(new ItemSearchDocument(id, name, description, id % 10 != 0 || id % RARE_EVERY == 0));
+        }
+        return page;
+    }
+}
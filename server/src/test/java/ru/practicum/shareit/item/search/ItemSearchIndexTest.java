@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    private final User userOleg = new User(1L, "Oleg", "oleg@yandex.ru");
+    @Mock
+    private ItemRepository mockItemRepository;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Mockito
+                .when(mockItemRepository.findSearchDocuments(anyLong(), any()))
+                .thenReturn(List.of(
+                        new ItemSearchDocument(1L, "Playstation", "For real man", true),
+                        new ItemSearchDocument(2L, "Dryer", "For curly hair", true),
+                        new ItemSearchDocument(3L, "Hair clipper", "Not for rent", false),
+                        new ItemSearchDocument(4L, "Hairbrush", "Wooden", true)));
+        index = new ItemSearchIndex(mockItemRepository, true);
+        index.rebuild();
+    }
+
+    @Test
+    void search_shouldMatchSubstringIgnoringCaseAndSkipUnavailable() {
+        assertTrue(index.isEnabled());
+        assertEquals(List.of(2L, 4L), index.search("HAIR", 0, 10));
+        assertEquals(List.of(1L), index.search("ays", 0, 10));
+        assertEquals(List.of(), index.search("xyz", 0, 10));
+    }
+
+    @Test
+    void search_shouldPageInIdOrder() {
+        assertEquals(List.of(2L), index.search("hair", 0, 1));
+        assertEquals(List.of(4L), index.search("hair", 1, 1));
+        assertEquals(List.of(), index.search("hair", 2, 1));
+    }
+
+    @Test
+    void search_shouldHandleQueriesShorterThanTrigram() {
+        assertEquals(List.of(1L, 2L), index.search("fo", 0, 10));
+    }
+
+    @Test
+    void search_shouldNotMatchAcrossNameAndDescription() {
+        assertEquals(List.of(), index.search("erfor", 0, 10));
+    }
+
+    @Test
+    void put_shouldReindexUpdatedItem() {
+        index.put(new Item(2L, "Dryer", "Ionic", true, userOleg, null));
+        index.put(new Item(5L, "Hair dryer", "Travel size", true, userOleg, null));
+
+        assertEquals(List.of(4L, 5L), index.search("hair", 0, 10));
+        assertEquals(List.of(2L, 5L), index.search("dryer", 0, 10));
+    }
+
+    @Test
+    void remove_shouldDropItem() {
+        index.remove(2L);
+
+        assertEquals(List.of(4L), index.search("hair", 0, 10));
+    }
+
+    @Test
+    void rebuild_shouldKeepWritesCommittedWhileRebuilding() {
+        ItemSearchIndex rebuilt = new ItemSearchIndex(mockItemRepository, true);
+        Mockito
+                .when(mockItemRepository.findSearchDocuments(anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    rebuilt.put(new Item(1L, "Playstation 5", "With two gamepads", true, userOleg, null));
+                    rebuilt.remove(2L);
+                    return List.of(
+                            new ItemSearchDocument(1L, "Playstation", "For real man", true),
+                            new ItemSearchDocument(2L, "Dryer", "For curly hair", true),
+                            new ItemSearchDocument(4L, "Hairbrush", "Wooden", true));
+                });
+
+        rebuilt.rebuild();
+
+        assertEquals(List.of(1L), rebuilt.search("gamepad", 0, 10));
+        assertEquals(List.of(), rebuilt.search("real man", 0, 10));
+        assertEquals(List.of(4L), rebuilt.search("hair", 0, 10));
+    }
+
+    @Test
+    void clear_shouldDropAllItems() {
+        index.clear();
+
+        assertEquals(List.of(), index.search("fo", 0, 10));
+        assertEquals(List.of(), index.search("hair", 0, 10));
+    }
+
+    @Test
+    void isEnabled_shouldBeFalseWhenSwitchedOff() {
+        ItemSearchIndex disabled = new ItemSearchIndex(mockItemRepository, false);
+        disabled.rebuild();
+
+        assertFalse(disabled.isEnabled());
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of {@link ItemSuggestIndex#suggest} from four concurrent readers; sample mode reports
+ * the percentiles. Prefixes go from one letter, which matches most of the catalog, to a nearly complete item
+ * name. After each trial the warmed index is timed once more against {@link #P99_BUDGET}; run with
+ * {@code -Djmh.args="ItemSuggestIndexBenchmark -foe true"} to fail the run when the budget is missed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSuggestIndexBenchmark {
+    private static final Duration P99_BUDGET = Duration.ofMillis(5);
+    private static final int BUDGET_SAMPLES = 20_000;
+    private static final String[] ADJECTIVES = {"cordless", "garden", "camping", "folding", "electric", "compact",
+            "heavy"};
+    private static final String[] NOUNS = {"drill", "hose", "tent", "ladder", "washer", "saw", "kayak", "grill",
+            "jack", "sander", "mixer"};
+
+    @Param({"100000", "1000000"})
+    public int items;
+
+    @Param({"c", "dr", "cordless d", "heavy saw 12"})
+    public String prefix;
+
+    private ItemSuggestIndex index;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1L, "Owner", "owner@example.com");
+        index = new ItemSuggestIndex(null, null);
+        for (long id = 1; id <= items; id++) {
+            String name = ADJECTIVES[(int) (id % ADJECTIVES.length)] + " "
+                    + NOUNS[(int) (id / ADJECTIVES.length % NOUNS.length)] + " " + id;
+            index.put(new Item(id, name, "For " + id % 1000 + " days", id % 10 != 0, owner, null));
+            if (id % 100 == 0) {
+                index.bookingCreated(id);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return index.suggest(prefix, 10);
+    }
+
+    @TearDown
+    public void checkP99Budget() {
+        long[] nanos = new long[BUDGET_SAMPLES];
+        for (int i = 0; i < nanos.length; i++) {
+            long started = System.nanoTime();
+            index.suggest(prefix, 10);
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        long p99 = nanos[nanos.length * 99 / 100];
+        if (p99 > P99_BUDGET.toNanos()) {
+            throw new IllegalStateException("p99 of suggest(\"" + prefix + "\") over " + items + " items was "
+                    + p99 + " ns, budget " + P99_BUDGET.toNanos() + " ns");
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSuggestIndexTest {
+    private final User userOleg = new User(1L, "Oleg", "oleg@yandex.ru");
+    @Mock
+    private ItemRepository mockItemRepository;
+    @Mock
+    private BookingRepository mockBookingRepository;
+    private ItemSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Mockito
+                .when(mockBookingRepository.countBookingsByItem())
+                .thenReturn(List.of(new ItemBookingCount(2L, 3L)));
+        Mockito
+                .when(mockItemRepository.findSearchDocuments(anyLong(), any()))
+                .thenReturn(List.of(
+                        new ItemSearchDocument(1L, "Drill", "Cordless drill", true),
+                        new ItemSearchDocument(2L, "Dryer", "For curly hair", true),
+                        new ItemSearchDocument(3L, "Drum kit", "Loud", false)));
+        index = new ItemSuggestIndex(mockItemRepository, mockBookingRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void suggest_shouldRankByBookingsAndAvailability() {
+        assertEquals(List.of("dryer", "drill", "drum", "drum kit"), index.suggest("DR", 10));
+        assertEquals(List.of("dryer"), index.suggest("dr", 1));
+    }
+
+    @Test
+    void suggest_shouldCompleteDescriptionWordsAndNamePhrases() {
+        assertEquals(List.of("cordless"), index.suggest("cor", 10));
+        assertEquals(List.of("drum kit"), index.suggest("drum  k", 10));
+        assertEquals(List.of(), index.suggest("xyz", 10));
+    }
+
+    @Test
+    void put_shouldReplaceTermsOfUpdatedItem() {
+        index.put(new Item(1L, "Hammer", "Steel", true, userOleg, null));
+
+        assertEquals(List.of("dryer", "drum", "drum kit"), index.suggest("dr", 10));
+        assertEquals(List.of("hair", "hammer"), index.suggest("ha", 10));
+    }
+
+    @Test
+    void bookingCreated_shouldRaiseItemTerms() {
+        for (int i = 0; i < 10; i++) {
+            index.bookingCreated(3L);
+        }
+
+        assertEquals(List.of("dryer", "drum", "drum kit", "drill"), index.suggest("dr", 10));
+    }
+
+    @Test
+    void remove_shouldDropTermsOfItem() {
+        index.remove(2L);
+
+        assertEquals(List.of("drill", "drum", "drum kit"), index.suggest("dr", 10));
+        assertEquals(List.of(), index.suggest("cu", 10));
+    }
+
+    @Test
+    void clear_shouldDropAllTerms() {
+        index.clear();
+
+        assertEquals(List.of(), index.suggest("d", 10));
+    }
+
+    @Test
+    void rebuild_shouldNotDoubleCountBookingCommittedWhileRebuilding() {
+        ItemSuggestIndex rebuilt = new ItemSuggestIndex(mockItemRepository, mockBookingRepository);
+        Mockito
+                .when(mockBookingRepository.countBookingsByItem())
+                .thenReturn(List.of(new ItemBookingCount(1L, 16L), new ItemBookingCount(2L, 3L)));
+        Mockito
+                .when(mockItemRepository.findSearchDocuments(anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    rebuilt.bookingCreated(2L);
+                    return List.of(
+                            new ItemSearchDocument(1L, "Drill", "Heavy", false),
+                            new ItemSearchDocument(2L, "Dryer", "For curly hair", true));
+                });
+        Mockito
+                .when(mockBookingRepository.countBookingsByItemIds(Set.of(2L)))
+                .thenReturn(List.of(new ItemBookingCount(2L, 3L)));
+
+        rebuilt.rebuild();
+
+        assertEquals(List.of("drill", "dryer"), rebuilt.suggest("dr", 10));
+    }
+
+    @Test
+    void rebuild_shouldKeepItemWritesCommittedWhileRebuilding() {
+        ItemSuggestIndex rebuilt = new ItemSuggestIndex(mockItemRepository, mockBookingRepository);
+        Mockito
+                .when(mockItemRepository.findSearchDocuments(anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    rebuilt.put(new Item(1L, "Sander", "Orbital", true, userOleg, null));
+                    rebuilt.remove(3L);
+                    return List.of(
+                            new ItemSearchDocument(1L, "Drill", "Cordless drill", true),
+                            new ItemSearchDocument(2L, "Dryer", "For curly hair", true),
+                            new ItemSearchDocument(3L, "Drum kit", "Loud", false));
+                });
+
+        rebuilt.rebuild();
+
+        assertEquals(List.of("dryer"), rebuilt.suggest("dr", 10));
+        assertEquals(List.of("sander"), rebuilt.suggest("sa", 10));
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.common.NdjsonExporter;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.ItemBulkResult;
+import ru.practicum.shareit.item.dto.ItemDtoInput;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.user.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "shareit.items.bulk-batch-size=50"
+})
+@Import({ItemServiceImpl.class, ItemViewCache.class, ItemSearchIndex.class, ItemSuggestIndex.class,
+        ItemAvailabilityIndex.class})
+class ItemBulkImportTest {
+    private static final int ROWS = 120;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private NdjsonExporter ndjsonExporter;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User(null, "Owner", "owner@example.com");
+        entityManager.persist(owner);
+        entityManager.flush();
+    }
+
+    @Test
+    void createAll_shouldInsertValidRowsInBatchesAndReportTheRest() {
+        List<ItemDtoInput> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new ItemDtoInput(null, "Item " + i, "Description " + i, true, null));
+        }
+        rows.set(3, new ItemDtoInput(null, " ", "No name", true, null));
+        rows.set(7, new ItemDtoInput(null, "Orphan", "Unknown request", true, 999L));
+        rows.set(11, null);
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ItemBulkResult result = itemService.createAll(owner.getId(), rows.iterator());
+
+        assertThat(result.getCreated()).isEqualTo(ROWS - 3);
+        assertThat(result.getIds()).hasSize(ROWS - 3).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(result.getErrors()).extracting("index").containsExactly(3L, 7L, 11L);
+        assertThat(result.getErrors().get(1).getError()).contains("999");
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS - 3);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+        Item stored = entityManager.find(Item.class, result.getIds().getFirst());
+        assertThat(stored.getOwner().getId()).isEqualTo(owner.getId());
+        // One index update per batch and index, not one per row.
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSizeLessThan(10);
+    }
+
+    @Test
+    void createAll_shouldRejectUnknownOwner() {
+        List<ItemDtoInput> rows = Arrays.asList(new ItemDtoInput(null, "Item", "Description", true, null));
+
+        assertThrows(NotFoundException.class, () -> itemService.createAll(owner.getId() + 100, rows.iterator()));
+    }
+}
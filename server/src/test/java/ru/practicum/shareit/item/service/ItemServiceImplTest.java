@@ -7,20 +7,32 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingIdAndBookerId;
+import ru.practicum.shareit.booking.dto.ItemBookingSlot;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.Cursor;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ServerException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.comments.Comment;
 import ru.practicum.shareit.item.comments.CommentDto;
+import ru.practicum.shareit.item.comments.CommentDtoPage;
 import ru.practicum.shareit.item.comments.CommentRepository;
+import ru.practicum.shareit.item.comments.ItemCommentRow;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoBookingAndComments;
 import ru.practicum.shareit.item.dto.ItemDtoInput;
+import ru.practicum.shareit.item.dto.ItemDtoPage;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
@@ -32,13 +44,13 @@ import java.util.*;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.lenient;
 
 @ExtendWith(MockitoExtension.class)
 class ItemServiceImplTest {
-    private final Set<Long> itemIds = new HashSet<>(Arrays.asList(6L, 7L));
     private final User userOleg = new User(1L, "Oleg", "oleg@yandex.ru");
     private final UserDto userDtoOleg = new UserDto(userOleg.getId(), userOleg.getName(), userOleg.getEmail());
     private final User userIrina = new User(2L, "Irina", "irina@yandex.ru");
@@ -66,7 +78,7 @@ class ItemServiceImplTest {
             nextBooking.getId(), nextBooking.getBooker().getId());
     private final ItemDtoBookingAndComments dryerDtoWithBookingsAndComments = new ItemDtoBookingAndComments(
             dryer.getId(), dryer.getName(), dryer.getDescription(),
-            dryer.getAvailable(), lastBookingShort, nextBookingShort, new ArrayList<>()
+            dryer.getAvailable(), lastBookingShort, nextBookingShort, new ArrayList<>(), 0L
     );
     private final Comment comment = new Comment(8L, "Amazing!", dryer, userOleg,
             LocalDateTime.of(2023, 1, 24, 12, 10));
@@ -82,6 +94,14 @@ class ItemServiceImplTest {
     private CommentRepository mockCommentRepository;
     @Mock
     private ItemRequestRepository mockItemRequestRepository;
+    @Mock
+    private ItemSearchIndex mockItemSearchIndex;
+    @Mock
+    private ItemSuggestIndex mockItemSuggestIndex;
+    @Mock
+    private ItemViewCache mockItemViewCache;
+    @Mock
+    private ItemAvailabilityIndex mockItemAvailabilityIndex;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -127,21 +147,9 @@ class ItemServiceImplTest {
     @Test
     void getById_shouldSuccess() {
         Mockito
-                .when(mockItemRepository.findById(dryer.getId()))
-                .thenReturn(Optional.of(dryer));
-        Mockito
-                .when(mockUserRepository.findById(userIrina.getId()))
-                .thenReturn(Optional.of(userIrina));
-        Mockito
-                .when(mockBookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(
-                        eq(dryer.getId()),
-                        any(LocalDateTime.class)))
-                .thenReturn(Optional.of(lastBooking));
-        Mockito
-                .when(mockBookingRepository.findFirstByItem_IdAndStartAfterOrderByEndDesc(
-                        eq(dryer.getId()),
+                .when(mockItemRepository.findItemView(eq(userIrina.getId()), eq(dryer.getId()),
                         any(LocalDateTime.class)))
-                .thenReturn(Optional.of(nextBooking));
+                .thenReturn(Optional.of(view(dryer, lastBooking, nextBooking)));
 
         ItemDtoBookingAndComments actual = itemService.getById(
                 userIrina.getId(), dryer.getId());
@@ -152,9 +160,9 @@ class ItemServiceImplTest {
 
     @Test
     void getById_shouldThrowExceptionIfItemNotExist() {
-        lenient()
-                .when(mockItemRepository.findById(99L))
-                .thenReturn(Optional.empty());
+        Mockito
+                .when(mockItemRepository.findItemView(eq(userIrina.getId()), eq(99L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new View(null, null, null, null, null, null, null, null, null, null)));
 
         assertThrows(
                 NotFoundException.class,
@@ -164,8 +172,8 @@ class ItemServiceImplTest {
 
     @Test
     void getById_shouldThrowExceptionIfUserNotExist() {
-        lenient()
-                .when(mockUserRepository.findById(99L))
+        Mockito
+                .when(mockItemRepository.findItemView(eq(99L), eq(userIrina.getId()), any(LocalDateTime.class)))
                 .thenReturn(Optional.empty());
 
         assertThrows(
@@ -181,26 +189,15 @@ class ItemServiceImplTest {
                 dryer.getName(),
                 dryer.getDescription(),
                 dryer.getAvailable(),
-                lastBookingShort, nextBookingShort, new ArrayList<>()
+                lastBookingShort, nextBookingShort, List.of(commentDto), 3L
         );
-        lenient()
-                .when(mockUserRepository.findById(userIrina.getId()))
-                .thenReturn(Optional.of(userIrina));
         Mockito
-                .when(mockItemRepository.findById(dryer.getId())).thenReturn(Optional.of(dryer));
-        Mockito
-                .when(mockBookingRepository.findFirstByItem_IdAndStartBeforeOrderByEndDesc(
-                        eq(dryer.getId()),
-                        any(LocalDateTime.class)))
-                .thenReturn(Optional.of(lastBooking));
-        Mockito
-                .when(mockBookingRepository.findFirstByItem_IdAndStartAfterOrderByEndDesc(
-                        eq(dryer.getId()),
+                .when(mockItemRepository.findItemView(eq(userIrina.getId()), eq(dryer.getId()),
                         any(LocalDateTime.class)))
-                .thenReturn(Optional.of(nextBooking));
+                .thenReturn(Optional.of(view(dryer, lastBooking, nextBooking)));
         Mockito
-                .when(mockCommentRepository.findByItem_Id(dryer.getId()))
-                .thenReturn(Collections.emptyList());
+                .when(mockCommentRepository.findNewestByItemIds(eq(List.of(dryer.getId())), anyInt()))
+                .thenReturn(List.of(commentRow(comment, 3L)));
 
         ItemDtoBookingAndComments actual = itemService.getById(
                 userIrina.getId(), dryer.getId()
@@ -218,17 +215,16 @@ class ItemServiceImplTest {
                 dryer.getAvailable(),
                 null,
                 null,
-                new ArrayList<>()
+                new ArrayList<>(),
+                0L
         );
-        lenient()
-                .when(mockUserRepository.findById(userOleg.getId()))
-                .thenReturn(Optional.of(userOleg));
         Mockito
-                .when(mockItemRepository.findById(dryer.getId()))
-                .thenReturn(Optional.of(dryer));
+                .when(mockItemRepository.findItemView(eq(userOleg.getId()), eq(dryer.getId()),
+                        any(LocalDateTime.class)))
+                .thenReturn(Optional.of(view(dryer, null, null)));
         Mockito
-                .when(mockCommentRepository.findByItem_Id(dryer.getId()))
-                .thenReturn(Collections.emptyList());
+                .when(mockCommentRepository.findNewestByItemIds(eq(List.of(dryer.getId())), anyInt()))
+                .thenReturn(List.of(commentRow(dryer)));
         ItemDtoBookingAndComments actual = itemService.getById(
                 userOleg.getId(), dryer.getId()
         );
@@ -236,6 +232,21 @@ class ItemServiceImplTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void getById_shouldServeCachedViewAfterCheckingUser() {
+        Mockito
+                .when(mockItemViewCache.get(userIrina.getId(), dryer.getId()))
+                .thenReturn(dryerDtoWithBookingsAndComments);
+        Mockito
+                .when(mockUserRepository.existsById(userIrina.getId()))
+                .thenReturn(true);
+
+        ItemDtoBookingAndComments actual = itemService.getById(userIrina.getId(), dryer.getId());
+
+        assertEquals(dryerDtoWithBookingsAndComments, actual);
+        Mockito.verifyNoInteractions(mockItemRepository, mockCommentRepository);
+    }
+
     @Test
     void getAll_shouldSuccess() {
         Mockito
@@ -244,9 +255,6 @@ class ItemServiceImplTest {
         Mockito
                 .when(mockUserRepository.findById(userIrina.getId()))
                 .thenReturn(Optional.of(userIrina));
-        lenient()
-                .when(mockBookingRepository.findLastBookings(itemIds))
-                .thenReturn(List.of(lastBooking, nextBooking));
         ItemDtoBookingAndComments expected = new ItemDtoBookingAndComments(
                 dryer.getId(),
                 dryer.getName(),
@@ -254,13 +262,53 @@ class ItemServiceImplTest {
                 dryer.getAvailable(),
                 null,
                 null,
-                null
+                null,
+                0L
         );
         List<ItemDtoBookingAndComments> actual = itemService.getAll(userIrina.getId(), 0, 1);
 
         assertEquals(List.of(expected), actual);
     }
 
+    @Test
+    void getAllByCursor_shouldSeekAfterLastIdAndReturnNextCursor() {
+        Mockito
+                .when(mockUserRepository.findById(userIrina.getId()))
+                .thenReturn(Optional.of(userIrina));
+        Mockito
+                .when(mockItemRepository.findAllByOwner_IdAndIdGreaterThanOrderByIdAsc(userIrina.getId(), 2L,
+                        PageRequest.of(0, 1)))
+                .thenReturn(List.of(dryer));
+
+        ItemDtoPage page = itemService.getAllByCursor(userIrina.getId(), Cursor.encode(2L), 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(dryer.getId(), page.getItems().getFirst().getId());
+        assertEquals(dryer.getId(), Cursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getAllByCursor_shouldStartFromBeginningAndEndWithoutCursor() {
+        Mockito
+                .when(mockUserRepository.findById(userIrina.getId()))
+                .thenReturn(Optional.of(userIrina));
+        Mockito
+                .when(mockItemRepository.findAllByOwner_IdAndIdGreaterThanOrderByIdAsc(userIrina.getId(), 0L,
+                        PageRequest.of(0, 10)))
+                .thenReturn(List.of(dryer));
+
+        ItemDtoPage page = itemService.getAllByCursor(userIrina.getId(), "", 10);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getAllByCursor_shouldRejectMalformedCursor() {
+        assertThrows(BadRequestException.class, () -> itemService.getAllByCursor(userIrina.getId(), "%%%", 10));
+        assertThrows(BadRequestException.class, () -> itemService.getAllByCursor(userIrina.getId(), "bm9wZQ", 10));
+    }
+
     @Test
     void getAll_shouldSuccessIfCommentSizeNotNull() {
         Mockito
@@ -269,12 +317,9 @@ class ItemServiceImplTest {
         Mockito
                 .when(mockUserRepository.findById(userIrina.getId()))
                 .thenReturn(Optional.of(userIrina));
-        lenient()
-                .when(mockBookingRepository.findLastBookings(itemIds))
-                .thenReturn(List.of(lastBooking, nextBooking));
         Mockito
-                .when(mockCommentRepository.findByItem_IdIn(anySet()))
-                .thenReturn(List.of(comment));
+                .when(mockCommentRepository.findNewestByItemIds(anyCollection(), anyInt()))
+                .thenReturn(List.of(commentRow(comment, 1L)));
         ItemDtoBookingAndComments expected = new ItemDtoBookingAndComments(
                 dryer.getId(),
                 dryer.getName(),
@@ -282,7 +327,8 @@ class ItemServiceImplTest {
                 dryer.getAvailable(),
                 null,
                 null,
-                List.of(commentDto)
+                List.of(commentDto),
+                1L
         );
         List<ItemDtoBookingAndComments> actual = itemService.getAll(userIrina.getId(), 0, 1);
         ItemDtoBookingAndComments act = actual.getFirst();
@@ -292,6 +338,8 @@ class ItemServiceImplTest {
         assertEquals(act.getAvailable(), expected.getAvailable());
         assertEquals(act.getLastBooking(), expected.getLastBooking());
         assertEquals(act.getNextBooking(), expected.getNextBooking());
+        assertEquals(act.getComments().getFirst().getId(), expected.getComments().getFirst().getId());
+        assertEquals(act.getCommentCount(), expected.getCommentCount());
     }
 
     @Test
@@ -302,18 +350,14 @@ class ItemServiceImplTest {
         Mockito
                 .when(mockUserRepository.findById(userIrina.getId()))
                 .thenReturn(Optional.of(userIrina));
-        lenient()
-                .when(mockBookingRepository.findLastBookings(itemIds))
-                .thenReturn(List.of(lastBooking, nextBooking));
-        Mockito
-                .when(mockCommentRepository.findByItem_IdIn(anySet()))
-                .thenReturn(List.of(comment));
         Mockito
-                .when(mockBookingRepository.findLastBookings(anySet()))
-                .thenReturn(List.of(lastBooking));
+                .when(mockCommentRepository.findNewestByItemIds(anyCollection(), anyInt()))
+                .thenReturn(List.of(commentRow(comment, 1L)));
         Mockito
-                .when(mockBookingRepository.findNextBookings(anySet()))
-                .thenReturn(List.of(nextBooking));
+                .when(mockBookingRepository.findLastAndNextBookings(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(
+                        slot(ItemBookingSlot.LAST, lastBooking),
+                        slot(ItemBookingSlot.NEXT, nextBooking)));
         ItemDtoBookingAndComments expected = new ItemDtoBookingAndComments(
                 dryer.getId(),
                 dryer.getName(),
@@ -321,7 +365,8 @@ class ItemServiceImplTest {
                 dryer.getAvailable(),
                 lastBookingShort,
                 nextBookingShort,
-                List.of(commentDto)
+                List.of(commentDto),
+                1L
         );
         List<ItemDtoBookingAndComments> actual = itemService.getAll(userIrina.getId(), 0, 1);
         ItemDtoBookingAndComments act = actual.getFirst();
@@ -331,6 +376,65 @@ class ItemServiceImplTest {
         assertEquals(act.getAvailable(), expected.getAvailable());
         assertEquals(act.getLastBooking(), expected.getLastBooking());
         assertEquals(act.getNextBooking(), expected.getNextBooking());
+        assertEquals(act.getComments().getFirst().getId(), expected.getComments().getFirst().getId());
+        assertEquals(act.getCommentCount(), expected.getCommentCount());
+    }
+
+    @Test
+    void getComments_shouldSeekBeforeLastSeenAndReturnNextCursor() {
+        LocalDateTime created = LocalDateTime.of(2023, 1, 25, 12, 0);
+        Mockito
+                .when(mockItemRepository.existsById(dryer.getId()))
+                .thenReturn(true);
+        Mockito
+                .when(mockCommentRepository.findPageByItemIdBefore(dryer.getId(), created, 9L, PageRequest.of(0, 1)))
+                .thenReturn(List.of(commentDto));
+
+        CommentDtoPage page = itemService.getComments(dryer.getId(), Cursor.encode(created, 9L), 1);
+
+        assertEquals(1, page.getComments().size());
+        assertEquals(new Cursor.Position(commentDto.getCreated(), commentDto.getId()),
+                Cursor.decodePosition(page.getNextCursor()));
+    }
+
+    @Test
+    void getComments_shouldStartFromNewestAndEndWithoutCursor() {
+        Mockito
+                .when(mockItemRepository.existsById(dryer.getId()))
+                .thenReturn(true);
+        Mockito
+                .when(mockCommentRepository.findPageByItemId(dryer.getId(), PageRequest.of(0, 10)))
+                .thenReturn(List.of(commentDto));
+
+        CommentDtoPage page = itemService.getComments(dryer.getId(), "", 10);
+
+        assertEquals(1, page.getComments().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getComments_shouldThrowExceptionIfItemNotExistOrCursorIsMalformed() {
+        assertThrows(NotFoundException.class, () -> itemService.getComments(99L, "", 10));
+        assertThrows(BadRequestException.class, () -> itemService.getComments(dryer.getId(), Cursor.encode(2L), 10));
+    }
+
+    @Test
+    void getFreeItems_shouldAnswerLoadedItemsInMemoryAndOthersWithOneQuery() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 10, 0, 0);
+        LocalDateTime to = from.plusDays(3);
+        Mockito
+                .when(mockItemAvailabilityIndex.isFreeIfLoaded(Set.of(1L, 2L, 3L, 4L), from, to))
+                .thenReturn(Map.of(1L, false, 2L, true));
+        Mockito
+                .when(mockItemRepository.findFreeItemIds(List.of(4L, 3L), from, to))
+                .thenReturn(List.of(4L));
+        Mockito
+                .when(mockItemRepository.findAvailableIds(List.of(2L)))
+                .thenReturn(List.of(2L));
+
+        List<Long> result = itemService.getFreeItems(new ItemAvailabilityRequest(List.of(4L, 3L, 2L, 1L), from, to));
+
+        assertEquals(List.of(4L, 2L), result);
     }
 
     @Test
@@ -446,6 +550,48 @@ class ItemServiceImplTest {
         assertEquals(List.of(dryerDto), actual);
     }
 
+    @Test
+    void getByText_ShouldUseIndexedSearchWhenEnabled() {
+        ReflectionTestUtils.setField(itemService, "indexedSearch", true);
+        Mockito
+                .when(mockItemRepository.searchIndexed("Dryer", PageRequest.of(0, 1)))
+                .thenReturn(List.of(dryer));
+        List<ItemDto> actual = itemService.getByText("Dryer", 0, 1);
+
+        assertEquals(List.of(dryerDto), actual);
+        Mockito
+                .verify(mockItemRepository, Mockito.never())
+                .findByText(anyString(), any());
+    }
+
+    @Test
+    void getByText_ShouldHydrateIdsFromInMemoryIndex() {
+        Mockito
+                .when(mockItemSearchIndex.isEnabled())
+                .thenReturn(true);
+        Mockito
+                .when(mockItemSearchIndex.search("Dryer", 0, 1))
+                .thenReturn(List.of(dryer.getId()));
+        Mockito
+                .when(mockItemRepository.findAllById(List.of(dryer.getId())))
+                .thenReturn(List.of(dryer));
+        List<ItemDto> actual = itemService.getByText("Dryer", 0, 1);
+
+        assertEquals(List.of(dryerDto), actual);
+        Mockito
+                .verify(mockItemRepository, Mockito.never())
+                .findByText(anyString(), any());
+    }
+
+    @Test
+    void suggest_ShouldDelegateToSuggestIndex() {
+        Mockito
+                .when(mockItemSuggestIndex.suggest("dr", 5))
+                .thenReturn(List.of("dryer"));
+
+        assertEquals(List.of("dryer"), itemService.suggest("dr", 5));
+    }
+
     @Test
     void getByTextIfBlank_ShouldSuccess() {
         List<ItemDto> actual = itemService.getByText("", 0, 1);
@@ -475,6 +621,7 @@ class ItemServiceImplTest {
         assertEquals(commentDto.getId(), realComment.getId());
         assertEquals(commentDto.getAuthorName(), realComment.getAuthorName());
         assertEquals(commentDto.getText(), realComment.getText());
+        Mockito.verify(mockItemRepository).incrementCommentCount(dryer.getId());
     }
 
     @Test
@@ -546,4 +693,38 @@ class ItemServiceImplTest {
                 () -> itemService.createComment(userOleg.getId(), dryer.getId(), commentDto)
         );
     }
+
+    private static ItemBookingSlot slot(String kind, Booking booking) {
+        return new Slot(booking.getItem().getId(), booking.getId(), booking.getBooker().getId(), kind);
+    }
+
+    private record Slot(Long getItemId, Long getId, Long getBookerId, String getKind) implements ItemBookingSlot {
+    }
+
+    private static ItemCommentRow commentRow(Comment comment, long commentCount) {
+        return new CommentRow(comment.getItem().getId(), commentCount, comment.getId(), comment.getText(),
+                comment.getAuthor().getName(), comment.getCreated());
+    }
+
+    private static ItemCommentRow commentRow(Item item) {
+        return new CommentRow(item.getId(), 0L, null, null, null, null);
+    }
+
+    private record CommentRow(Long getItemId, Long getCommentCount, Long getId, String getText, String getAuthorName,
+                              LocalDateTime getCreated) implements ItemCommentRow {
+    }
+
+    private static ItemView view(Item item, Booking last, Booking next) {
+        return new View(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner().getId(),
+                last == null ? null : last.getId(), last == null ? null : last.getBooker().getId(),
+                next == null ? null : next.getId(), next == null ? null : next.getBooker().getId(),
+                next == null ? null : next.getStart());
+    }
+
+    private record View(Long getId, String getName, String getDescription, Boolean getAvailable, Long getOwnerId,
+                        Long getLastBookingId, Long getLastBookerId, Long getNextBookingId, Long getNextBookerId,
+                        LocalDateTime getValidUntil)
+            implements ItemView {
+    }
 }
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.NdjsonExporter;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.comments.Comment;
+import ru.practicum.shareit.item.dto.ItemDtoBookingAndComments;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.item-view-cache.enabled=false"
+})
+@Import({ItemServiceImpl.class, ItemViewCache.class, ItemSearchIndex.class, ItemSuggestIndex.class,
+        ItemAvailabilityIndex.class})
+class ItemServiceQueryCountTest {
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @MockBean
+    private NdjsonExporter ndjsonExporter;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking nextBooking;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User(null, "Owner", "owner@example.com");
+        booker = new User(null, "Booker", "booker@example.com");
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        item = new Item(null, "Drill", "Cordless drill", true, owner, null);
+        entityManager.persist(item);
+
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.persist(new Booking(null, now.minusDays(5), now.minusDays(4), item, booker, Status.APPROVED));
+        entityManager.persist(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, Status.APPROVED));
+        // The item view shows the upcoming booking that ends latest, whatever its status.
+        nextBooking = new Booking(null, now.plusDays(5), now.plusDays(6), item, booker, Status.WAITING);
+        entityManager.persist(nextBooking);
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(new Comment(null, "Comment " + i, item, booker, now.minusDays(3)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getById_shouldUseTwoStatementsForOwner() {
+        ItemDtoBookingAndComments actual = itemService.getById(owner.getId(), item.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(actual.getNextBooking().getId()).isEqualTo(nextBooking.getId());
+        assertThat(actual.getLastBooking().getBookerId()).isEqualTo(booker.getId());
+        assertThat(actual.getComments()).hasSize(3)
+                .allMatch(comment -> comment.getAuthorName().equals(booker.getName()));
+    }
+
+    @Test
+    void getById_shouldHideBookingsFromOtherUsers() {
+        ItemDtoBookingAndComments actual = itemService.getById(booker.getId(), item.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(actual.getLastBooking()).isNull();
+        assertThat(actual.getNextBooking()).isNull();
+    }
+
+    @Test
+    void getById_shouldFailFastOnMissingUserOrItem() {
+        assertThrows(NotFoundException.class, () -> itemService.getById(owner.getId(), item.getId() + 100));
+        assertThrows(NotFoundException.class, () -> itemService.getById(booker.getId() + 100, item.getId()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void getAll_shouldUseFixedStatementsAndLoadNoBookingsForBusyItems() {
+        LocalDateTime now = LocalDateTime.now();
+        User managedOwner = entityManager.getReference(User.class, owner.getId());
+        User managedBooker = entityManager.getReference(User.class, booker.getId());
+        List<Long> itemIds = new ArrayList<>(List.of(item.getId()));
+        for (int i = 0; i < 4; i++) {
+            Item busy = new Item(null, "Busy " + i, "Booked every week", true, managedOwner, null);
+            entityManager.persist(busy);
+            itemIds.add(busy.getId());
+            for (int week = 1; week <= 50; week++) {
+                entityManager.persist(new Booking(null, now.minusWeeks(week), now.minusWeeks(week).plusDays(1),
+                        busy, managedBooker, Status.APPROVED));
+                entityManager.persist(new Booking(null, now.plusWeeks(week), now.plusWeeks(week).plusDays(1),
+                        busy, managedBooker, Status.APPROVED));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<ItemDtoBookingAndComments> actual = itemService.getAll(owner.getId(), 0, 10);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(statistics.getEntityStatistics(Booking.class.getName()).getLoadCount()).isZero();
+        assertThat(actual).hasSize(5)
+                .allSatisfy(view -> {
+                    assertThat(view.getLastBooking()).isNotNull();
+                    assertThat(view.getNextBooking()).isNotNull();
+                });
+        assertThat(bookingRepository.findLastAndNextBookings(itemIds, now)).hasSize(2 * itemIds.size());
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingIdAndBookerId;
+import ru.practicum.shareit.item.dto.ItemDtoBookingAndComments;
+import ru.practicum.shareit.item.dto.ItemView;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ItemViewCacheTest {
+    private static final long OWNER = 1L;
+    private static final long OTHER = 2L;
+    private static final long ITEM = 3L;
+
+    private final ItemViewCache cache = new ItemViewCache(true, 100, Duration.ofMinutes(5));
+
+    @Test
+    void ownerLoadServesOwnerAndOtherUsers() {
+        cache.put(cache.version(), OWNER, view(null), ownerView());
+
+        assertEquals(new BookingIdAndBookerId(10L, OTHER), cache.get(OWNER, ITEM).getLastBooking());
+        ItemDtoBookingAndComments publicView = cache.get(OTHER, ITEM);
+        assertNull(publicView.getLastBooking());
+        assertNull(publicView.getNextBooking());
+        assertEquals(ownerView().getName(), publicView.getName());
+    }
+
+    @Test
+    void otherUserLoadDoesNotServeOwner() {
+        cache.put(cache.version(), OTHER, view(null), publicView());
+
+        assertEquals(publicView().getName(), cache.get(OTHER, ITEM).getName());
+        assertNull(cache.get(OWNER, ITEM));
+    }
+
+    @Test
+    void ownerViewExpiresWhenNextBookingStarts() {
+        cache.put(cache.version(), OWNER, view(LocalDateTime.now().minusSeconds(1)), ownerView());
+
+        assertNull(cache.get(OWNER, ITEM));
+        assertEquals(ownerView().getName(), cache.get(OTHER, ITEM).getName());
+    }
+
+    @Test
+    void bookingChangeDropsOwnerViewOnly() {
+        cache.put(cache.version(), OWNER, view(null), ownerView());
+
+        cache.invalidateBookings(ITEM);
+
+        assertNull(cache.get(OWNER, ITEM));
+        assertEquals(ownerView().getName(), cache.get(OTHER, ITEM).getName());
+    }
+
+    @Test
+    void invalidateDropsBothViews() {
+        cache.put(cache.version(), OWNER, view(null), ownerView());
+
+        cache.invalidate(ITEM);
+
+        assertNull(cache.get(OWNER, ITEM));
+        assertNull(cache.get(OTHER, ITEM));
+    }
+
+    @Test
+    void viewLoadedBeforeInvalidationIsNotStored() {
+        long version = cache.version();
+        cache.invalidate(ITEM);
+
+        cache.put(version, OWNER, view(null), ownerView());
+
+        assertNull(cache.get(OWNER, ITEM));
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        ItemViewCache disabled = new ItemViewCache(false, 100, Duration.ofMinutes(5));
+
+        disabled.put(disabled.version(), OWNER, view(null), ownerView());
+
+        assertNull(disabled.get(OWNER, ITEM));
+    }
+
+    @Test
+    void hitRatioIsExposed() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.get(OWNER, ITEM);
+        cache.put(cache.version(), OWNER, view(null), ownerView());
+        cache.get(OWNER, ITEM);
+
+        assertEquals(0.5, registry.get("items.view.hit.ratio").gauge().value());
+        assertEquals(1, registry.get("items.view.requests").tag("result", "hit").functionCounter().count());
+    }
+
+    private static ItemDtoBookingAndComments ownerView() {
+        return new ItemDtoBookingAndComments(ITEM, "Drill", "Cordless drill", true,
+                new BookingIdAndBookerId(10L, OTHER), new BookingIdAndBookerId(11L, OTHER), List.of(), 0L);
+    }
+
+    private static ItemDtoBookingAndComments publicView() {
+        return new ItemDtoBookingAndComments(ITEM, "Drill", "Cordless drill", true, null, null, List.of(), 0L);
+    }
+
+    private static ItemView view(LocalDateTime validUntil) {
+        return new View(ITEM, "Drill", "Cordless drill", true, OWNER, null, null, null, null, validUntil);
+    }
+
+    private record View(Long getId, String getName, String getDescription, Boolean getAvailable, Long getOwnerId,
+                        Long getLastBookingId, Long getLastBookerId, Long getNextBookingId, Long getNextBookerId,
+                        LocalDateTime getValidUntil) implements ItemView {
+    }
+}
@@ -5,7 +5,6 @@ ALTER TABLE bookings ALTER COLUMN id RESTART WITH 1;
 
 DELETE FROM items WHERE id = 3;
 DELETE FROM items WHERE id = 5;
-ALTER TABLE items ALTER COLUMN id RESTART WITH 1;
 
 DELETE FROM requests WHERE id = 6;
 DELETE FROM requests WHERE id = 4;
@@ -0,0 +1,3 @@
+-- Test fixtures insert items with explicit ids below 1000. The items id is not an identity column, so it
+-- cannot be restarted after each test; generated ids start past the fixture range instead.
+ALTER SEQUENCE items_seq RESTART WITH 1001;
@@ -0,0 +1 @@
+DELETE FROM comments WHERE id IN (5, 6, 7);
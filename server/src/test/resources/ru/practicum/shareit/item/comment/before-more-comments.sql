@@ -0,0 +1,10 @@
+INSERT INTO comments (id, text, item_id, author_id, created)
+VALUES (5, 'Quiet', 3, 2, '2023-01-21 12:00:00');
+
+INSERT INTO comments (id, text, item_id, author_id, created)
+VALUES (6, 'Light', 3, 1, '2023-01-22 12:00:00');
+
+INSERT INTO comments (id, text, item_id, author_id, created)
+VALUES (7, 'Fast', 3, 2, '2023-01-22 12:00:00');
+
+UPDATE items SET comment_count = 4 WHERE id = 3;
@@ -0,0 +1 @@
+TRUNCATE comments, bookings, items, requests, users;
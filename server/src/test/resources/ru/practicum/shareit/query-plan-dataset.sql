@@ -0,0 +1,31 @@
+-- 10 000 users, 20 000 requests, 100 000 items, 500 000 bookings and 200 000 comments, generated in PostgreSQL.
+
+INSERT INTO users (id, name, email)
+SELECT x, 'User ' || x, 'user' || x || '@example.com'
+FROM generate_series(1, 10000) x;
+
+INSERT INTO requests (id, description, requester_id, created)
+SELECT x, 'Request ' || x, x % 10000 + 1, TIMESTAMP '2023-01-01 00:00:00' + x * INTERVAL '1 hour'
+FROM generate_series(1, 20000) x;
+
+-- Every thousandth item is a perforator, the rare word searched for.
+INSERT INTO items (id, name, description, is_available, owner_id, request_id)
+SELECT x, CASE WHEN x % 1000 = 0 THEN 'Perforator ' ELSE 'Item ' END || x, 'Description ' || x, x % 5 <> 0,
+       x % 10000 + 1, CASE WHEN x % 4 = 0 THEN x % 20000 + 1 END
+FROM generate_series(1, 100000) x;
+
+-- Hourly from 2020 on, so bookings lie both in the past and in the future. Bookings of one item are
+-- 100 000 hours apart and never overlap.
+INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status)
+SELECT x, TIMESTAMP '2020-01-01 00:00:00' + x * INTERVAL '1 hour',
+       TIMESTAMP '2020-01-01 00:00:00' + (x + 2) * INTERVAL '1 hour',
+       x % 100000 + 1, x * 7 % 10000 + 1,
+       CASE x % 4 WHEN 0 THEN 'WAITING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END
+FROM generate_series(1, 500000) x;
+
+INSERT INTO comments (id, text, item_id, author_id, created)
+SELECT x, 'Comment ' || x, x % 100000 + 1, x * 3 % 10000 + 1,
+       TIMESTAMP '2023-01-01 00:00:00' + x * INTERVAL '1 minute'
+FROM generate_series(1, 200000) x;
+
+ANALYZE;